@@ -11,6 +11,7 @@ import android.widget.TextView;
 
 import net.ganin.darv.DpadAwareRecyclerView;
 import net.ganin.darv.ExtGridLayoutManager;
+import net.ganin.darv.SelectorCoordinator;
 
 public class SampleActivity extends Activity {
 
@@ -50,8 +51,16 @@ public class SampleActivity extends Activity {
 
         mInfo = (TextView) findViewById(R.id.info);
 
-        prepareFirstList((DpadAwareRecyclerView) findViewById(R.id.list1));
-        prepareSecondList((DpadAwareRecyclerView) findViewById(R.id.list2));
+        DpadAwareRecyclerView list1 = (DpadAwareRecyclerView) findViewById(R.id.list1);
+        DpadAwareRecyclerView list2 = (DpadAwareRecyclerView) findViewById(R.id.list2);
+
+        // Selector flies over from one list to another
+        SelectorCoordinator selectorCoordinator = new SelectorCoordinator();
+        list1.setSelectorCoordinator(selectorCoordinator);
+        list2.setSelectorCoordinator(selectorCoordinator);
+
+        prepareFirstList(list1);
+        prepareSecondList(list2);
     }
 
     private void prepareFirstList(DpadAwareRecyclerView list) {
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2016 Vsevolod Ganin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ganin.darv;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of math which runs on every key press: selector interpolation, camera scroll,
+ * AUTO_FIT span resolution, circular jump and remembered position shifting.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NavigationMathBenchmark {
+
+    /* Power of two so index wraps with a mask */
+    private static final int SAMPLE_COUNT = 1024;
+
+    @Param({ "0.5", "0.25" })
+    public float offsetFraction;
+
+    private final int[] mChildStarts = new int[SAMPLE_COUNT];
+    private final int[] mPositions = new int[SAMPLE_COUNT];
+    private final float[] mFractions = new float[SAMPLE_COUNT];
+    private int mIndex = 0;
+
+    @Setup
+    public void setUp() {
+        // Fixed seed so every run measures the same inputs
+        Random random = new Random(42);
+        for (int i = 0; i < SAMPLE_COUNT; i++) {
+            mChildStarts[i] = random.nextInt(3840) - 960;
+            mPositions[i] = random.nextInt(1000000);
+            mFractions[i] = random.nextFloat();
+        }
+    }
+
+    private int next() {
+        mIndex = (mIndex + 1) & (SAMPLE_COUNT - 1);
+        return mIndex;
+    }
+
+    @Benchmark
+    public void interpolateRect(Blackhole bh) {
+        int i = next();
+        float fraction = mFractions[i];
+        int start = mChildStarts[i];
+        bh.consume(NavigationMath.interpolate(start, 640, fraction));
+        bh.consume(NavigationMath.interpolate(start + 120, 360, fraction));
+        bh.consume(NavigationMath.interpolate(start + 320, 960, fraction));
+        bh.consume(NavigationMath.interpolate(start + 300, 720, fraction));
+    }
+
+    @Benchmark
+    public void cameraScroll(Blackhole bh) {
+        int i = next();
+        int childStart = mChildStarts[i];
+        bh.consume(NavigationMath.computeCameraScroll(48, 1872, childStart, childStart + 320,
+                offsetFraction, false));
+        bh.consume(NavigationMath.computeCameraScroll(27, 1053, childStart / 2,
+                childStart / 2 + 180, offsetFraction, false));
+    }
+
+    @Benchmark
+    public int autoFitSpanCount() {
+        int i = next();
+        return NavigationMath.computeAutoFitSpanCount(1920, 120 + (mPositions[i] & 0xff));
+    }
+
+    @Benchmark
+    public int circularJumpTarget() {
+        int i = next();
+        return NavigationMath.computeCircularJumpTarget((mPositions[i] % 3) - 1, 1000000);
+    }
+
+    @Benchmark
+    public void positionAfterChange(Blackhole bh) {
+        int i = next();
+        int position = mPositions[i];
+        int changed = mPositions[(i + 1) & (SAMPLE_COUNT - 1)];
+        bh.consume(NavigationMath.positionAfterInsert(position, changed, 10));
+        bh.consume(NavigationMath.positionAfterRemove(position, changed, 10));
+        bh.consume(NavigationMath.positionAfterMove(position, changed, changed / 2, 10));
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2016 Vsevolod Ganin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.ganin.darv;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of program guide lookups which run on every layout, scroll and D-pad step:
+ * visible cells of a row and the cell at remembered time column.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ScheduleIndexBenchmark {
+
+    /* Power of two so index wraps with a mask */
+    private static final int SAMPLE_COUNT = 1024;
+
+    private static final long MINUTE = 60 * 1000L;
+    private static final long DAY = 24 * 60 * MINUTE;
+
+    /* Typical TV viewport shows about two hours */
+    private static final long VISIBLE_DURATION = 2 * 60 * MINUTE;
+
+    @Param({ "500" })
+    public int channelCount;
+
+    @Param({ "14" })
+    public int dayCount;
+
+    private final ScheduleIndex mIndex = new ScheduleIndex();
+    private final int[] mRows = new int[SAMPLE_COUNT];
+    private final long[] mTimes = new long[SAMPLE_COUNT];
+    private int mSample = 0;
+
+    @Setup
+    public void setUp() {
+        // Fixed seed so every run measures the same schedule
+        Random random = new Random(42);
+        long scheduleEnd = dayCount * DAY;
+
+        // Programs from 5 minutes to 3 hours with occasional gaps
+        int capacity = (int) (channelCount * (scheduleEnd / (5 * MINUTE)));
+        long[] startTimes = new long[capacity];
+        long[] endTimes = new long[capacity];
+        int[] rowStarts = new int[channelCount + 1];
+
+        int pos = 0;
+        for (int row = 0; row < channelCount; row++) {
+            rowStarts[row] = pos;
+            long time = 0;
+            while (time < scheduleEnd) {
+                if (random.nextInt(20) == 0) {
+                    time += 5 * MINUTE;
+                }
+                long duration = (5 + random.nextInt(36) * 5) * MINUTE;
+                startTimes[pos] = time;
+                endTimes[pos] = time + duration;
+                time += duration;
+                pos++;
+            }
+        }
+        rowStarts[channelCount] = pos;
+
+        long[] starts = new long[pos];
+        long[] ends = new long[pos];
+        System.arraycopy(startTimes, 0, starts, 0, pos);
+        System.arraycopy(endTimes, 0, ends, 0, pos);
+        mIndex.set(rowStarts, starts, ends);
+
+        for (int i = 0; i < SAMPLE_COUNT; i++) {
+            mRows[i] = random.nextInt(channelCount);
+            mTimes[i] = (long) (random.nextDouble() * (scheduleEnd - VISIBLE_DURATION));
+        }
+    }
+
+    private int next() {
+        mSample = (mSample + 1) & (SAMPLE_COUNT - 1);
+        return mSample;
+    }
+
+    @Benchmark
+    public void visibleCellsOfRow(Blackhole bh) {
+        int i = next();
+        int row = mRows[i];
+        long from = mTimes[i];
+        long to = from + VISIBLE_DURATION;
+        int rowEnd = mIndex.getRowEnd(row);
+        for (int pos = mIndex.findFirstEndingAfter(row, from);
+                pos < rowEnd && mIndex.getStartTime(pos) <= to; pos++) {
+            bh.consume(pos);
+        }
+    }
+
+    @Benchmark
+    public int cellAtTime() {
+        int i = next();
+        return mIndex.findCellAt(mRows[i], mTimes[i]);
+    }
+
+    @Benchmark
+    public int rowForPosition() {
+        int i = next();
+        return mIndex.getRowForPosition(mIndex.getRowStart(mRows[i]) + 1);
+    }
+}
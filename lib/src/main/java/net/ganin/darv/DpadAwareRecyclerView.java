@@ -25,7 +25,11 @@ import android.content.res.TypedArray;
 import android.graphics.Canvas;
 import android.graphics.Rect;
 import android.graphics.drawable.Drawable;
+import android.os.AsyncTask;
 import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.support.annotation.DrawableRes;
 import android.support.annotation.IntDef;
 import android.support.annotation.NonNull;
@@ -33,10 +37,15 @@ import android.support.annotation.Nullable;
 import android.support.v7.widget.RecyclerView;
 import android.util.AttributeSet;
 import android.util.Property;
+import android.util.SparseBooleanArray;
+import android.view.Choreographer;
 import android.view.FocusFinder;
+import android.view.InputDevice;
 import android.view.KeyEvent;
+import android.view.MotionEvent;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.ViewParent;
 import android.view.ViewTreeObserver;
 import android.view.animation.Interpolator;
 import android.view.animation.LinearInterpolator;
@@ -44,6 +53,8 @@ import android.view.animation.LinearInterpolator;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
 
 /**
  * RecyclerView adaptation for D-pad.
@@ -98,6 +109,180 @@ public class DpadAwareRecyclerView extends RecyclerView implements
         void onItemFocused(DpadAwareRecyclerView parent, View view, int position, long id);
     }
 
+    /**
+     * Interface which adapter may implement in order to supply section boundaries, e.g.
+     * first title of each letter in A&ndash;Z catalog.
+     *
+     * @see #jumpToNextSection()
+     * @see #jumpToPreviousSection()
+     */
+    public interface SectionProvider {
+        /**
+         * Gets section start positions. Array is kept by DpadAwareRecyclerView until next
+         * adapter change notification, so it must not be modified in between.
+         *
+         * @return Adapter positions of sections' first items sorted in ascending order
+         */
+        int[] getSectionPositions();
+    }
+
+    /**
+     * Interface definition for a callback to be invoked when navigation speed state changes.
+     */
+    public interface OnNavigationStateChangedListener {
+        /**
+         * Will be called when user starts, speeds up or finishes D-pad navigation.
+         *
+         * @param parent The DpadAwareRecyclerView where navigation happens
+         * @param state  New navigation state
+         */
+        void onNavigationStateChanged(DpadAwareRecyclerView parent, @NavigationState int state);
+    }
+
+    /**
+     * Interface definition for a callback to be invoked when adaptive quality tier changes.
+     */
+    public interface OnQualityTierChangedListener {
+        /**
+         * Will be called when effects are degraded because of dropped frames or restored
+         * after frames recovered.
+         *
+         * @param parent The DpadAwareRecyclerView whose effects changed
+         * @param tier   New quality tier
+         */
+        void onQualityTierChanged(DpadAwareRecyclerView parent, @QualityTier int tier);
+    }
+
+    /**
+     * Interface which maps items to keys identifying them across data set changes. Used to
+     * keep selection on the same item after {@link Adapter#notifyDataSetChanged()} if adapter
+     * has no stable ids.
+     *
+     * @see #setItemKeyProvider(ItemKeyProvider)
+     */
+    public interface ItemKeyProvider {
+        /**
+         * Gets key of item at passed position. Called on the main thread whenever selection
+         * changes.
+         *
+         * @param position adapter position
+         * @return key of the item or null if item has no key
+         */
+        @Nullable
+        Object getItemKey(int position);
+
+        /**
+         * Finds position of item with passed key in current data set. Called on background
+         * thread after {@link Adapter#notifyDataSetChanged()}, so it must only read immutable
+         * data, e.g. snapshot of the list adapter was notified about.
+         *
+         * @param key key previously returned by {@link #getItemKey(int)}
+         * @return adapter position or {@link #NO_POSITION} if item is gone
+         */
+        int getItemPosition(@NonNull Object key);
+    }
+
+    /**
+     * Navigation speed state.
+     */
+    @IntDef({ NAVIGATION_STATE_IDLE, NAVIGATION_STATE_STEPPING, NAVIGATION_STATE_FAST })
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface NavigationState {}
+
+    /**
+     * User doesn't navigate and all scrolling is finished.
+     */
+    public static final int NAVIGATION_STATE_IDLE = 0;
+
+    /**
+     * User presses D-pad keys one at a time.
+     */
+    public static final int NAVIGATION_STATE_STEPPING = 1;
+
+    /**
+     * User holds D-pad key so items pass through viewport very fast.
+     */
+    public static final int NAVIGATION_STATE_FAST = 2;
+
+    /**
+     * Quality tier of effects.
+     */
+    @IntDef({ QUALITY_TIER_FULL, QUALITY_TIER_FAST_SELECTOR, QUALITY_TIER_INSTANT_SELECTOR,
+            QUALITY_TIER_NO_SMOOTH_SCROLL })
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface QualityTier {}
+
+    /**
+     * All effects are as configured.
+     */
+    public static final int QUALITY_TIER_FULL = 0;
+
+    /**
+     * Selector transitions are twice as fast as configured.
+     */
+    public static final int QUALITY_TIER_FAST_SELECTOR = 1;
+
+    /**
+     * Selector moves instantly.
+     */
+    public static final int QUALITY_TIER_INSTANT_SELECTOR = 2;
+
+    /**
+     * Selector moves instantly and list scrolls immediately even if smooth scrolling is on.
+     */
+    public static final int QUALITY_TIER_NO_SMOOTH_SCROLL = 3;
+
+    /**
+     * Choice mode.
+     */
+    @IntDef({ CHOICE_MODE_NONE, CHOICE_MODE_SINGLE, CHOICE_MODE_MULTIPLE })
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface ChoiceMode {}
+
+    /**
+     * Items cannot be checked.
+     */
+    public static final int CHOICE_MODE_NONE = 0;
+
+    /**
+     * At most one item can be checked at a time.
+     */
+    public static final int CHOICE_MODE_SINGLE = 1;
+
+    /**
+     * Any number of items can be checked.
+     */
+    public static final int CHOICE_MODE_MULTIPLE = 2;
+
+    /**
+     * Payload passed to {@link Adapter#onBindViewHolder(ViewHolder, int, java.util.List)} for
+     * items which were bound while navigation was fast and now must be bound completely.
+     *
+     * @see #setDeferredBindingEnabled(boolean)
+     */
+    public static final Object PAYLOAD_FULL_BIND = new Object();
+
+    /**
+     * RecyclerView's default number of cached views.
+     */
+    private static final int DEFAULT_VIEW_CACHE_SIZE = 2;
+
+    /**
+     * RecyclerView's default capacity of recycled view pool per view type.
+     */
+    private static final int DEFAULT_MAX_SCRAP = 5;
+
+    private static final float DEFAULT_JOYSTICK_DEAD_ZONE = 0.2f;
+    private static final float DEFAULT_JOYSTICK_CURVE = 2f;
+    private static final int DEFAULT_JOYSTICK_MAX_VELOCITY_DP = 2000;
+
+    private static final String TRACE_DISPATCH_KEY_EVENT = "DARV#dispatchKeyEvent";
+    private static final String TRACE_REQUEST_CHILD_FOCUS = "DARV#requestChildFocus";
+    private static final String TRACE_REQUEST_CHILD_FOCUS_INNER = "DARV#requestChildFocusInner";
+    private static final String TRACE_ANIMATE_SELECTOR_CHANGE = "DARV#animateSelectorChange";
+    private static final String TRACE_ON_LAYOUT = "DARV#onLayout";
+    private static final String TRACE_ON_DRAW = "DARV#onDraw";
+
     private static final Property<Drawable, Rect> BOUNDS_PROP = Property.of(
             Drawable.class, Rect.class, "bounds");
 
@@ -119,21 +304,38 @@ public class DpadAwareRecyclerView extends RecyclerView implements
     private static final int BACKGROUND = 1;
     private static final int SELECTOR_COUNT = 2;
 
+    private static final OnItemClickListener[] NO_ITEM_CLICK_LISTENERS =
+            new OnItemClickListener[0];
+    private static final OnItemSelectedListener[] NO_ITEM_SELECTED_LISTENERS =
+            new OnItemSelectedListener[0];
+
     private class LocalAdapterDataObserver extends AdapterDataObserver {
 
         @Override
         public void onChanged() {
+            mSectionIndexValid = false;
+            mNavigationEvent.clear();
+            mCheckedPositions.truncate(getAdapter().getItemCount());
+            invalidateCheckedState();
+
             // Case when adapter hasn't stable ids. Other case is handled natively by RecyclerView.
             if (!getAdapter().hasStableIds()) {
                 mPendingSelectionInt = getSelectedItemPosition();
                 if (mPendingSelectionInt == NO_POSITION) {
                     mPendingSelectionInt = 0;
                 }
+
+                // Position is kept meanwhile and corrected once the item is found
+                findSelectedItemByKey();
             }
         }
 
         @Override
         public void onItemRangeChanged(int positionStart, int itemCount) {
+            mSectionIndexValid = false;
+            mNavigationEvent.clear();
+            cancelItemKeyLookup();
+
             // Case when adapter hasn't stable ids. Other case is handled natively by RecyclerView.
             if (!getAdapter().hasStableIds()) {
                 int selectedPos = getSelectedItemPosition();
@@ -153,6 +355,15 @@ public class DpadAwareRecyclerView extends RecyclerView implements
 
         @Override
         public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            mSectionIndexValid = false;
+            mNavigationEvent.clear();
+            cancelItemKeyLookup();
+            mFocusArchivist.onItemRangeMoved(fromPosition, toPosition, itemCount);
+            mCheckedPositions.onItemRangeMoved(fromPosition, toPosition, itemCount);
+            invalidateCheckedState();
+            mPendingSelectionInt = NavigationMath.positionAfterMove(mPendingSelectionInt,
+                    fromPosition, toPosition, itemCount);
+
             int selectedPos = getSelectedItemPosition();
             if (selectedPos >= fromPosition && selectedPos < fromPosition + itemCount) {
                 setSelection(selectedPos - fromPosition + toPosition);
@@ -161,6 +372,15 @@ public class DpadAwareRecyclerView extends RecyclerView implements
 
         @Override
         public void onItemRangeInserted(int positionStart, int itemCount) {
+            mSectionIndexValid = false;
+            mNavigationEvent.clear();
+            cancelItemKeyLookup();
+            mFocusArchivist.onItemRangeInserted(positionStart, itemCount);
+            mCheckedPositions.onItemRangeInserted(positionStart, itemCount);
+            invalidateCheckedState();
+            mPendingSelectionInt = NavigationMath.positionAfterInsert(mPendingSelectionInt,
+                    positionStart, itemCount);
+
             int selectedPos = getSelectedItemPosition();
             if (selectedPos >= positionStart && selectedPos < positionStart + itemCount) {
                 setSelection(selectedPos + itemCount);
@@ -169,6 +389,15 @@ public class DpadAwareRecyclerView extends RecyclerView implements
 
         @Override
         public void onItemRangeRemoved(int positionStart, int itemCount) {
+            mSectionIndexValid = false;
+            mNavigationEvent.clear();
+            cancelItemKeyLookup();
+            mFocusArchivist.onItemRangeRemoved(positionStart, itemCount);
+            mCheckedPositions.onItemRangeRemoved(positionStart, itemCount);
+            invalidateCheckedState();
+            mPendingSelectionInt = NavigationMath.positionAfterRemove(mPendingSelectionInt,
+                    positionStart, itemCount);
+
             int selectedPos = getSelectedItemPosition();
             if (selectedPos >= positionStart && selectedPos < positionStart + itemCount) {
                 setSelection(positionStart);
@@ -176,28 +405,80 @@ public class DpadAwareRecyclerView extends RecyclerView implements
         }
     }
 
+    /**
+     * Item which navigation listeners were notified about. Position and id are resolved once
+     * and reused by every listener and by subsequent events for the same item, e.g. by
+     * selection that follows focus.
+     */
+    private static final class NavigationEvent {
+
+        @Nullable View mView;
+        int mPosition = NO_POSITION;
+        long mId = NO_ID;
+
+        void clear() {
+            mView = null;
+            mPosition = NO_POSITION;
+            mId = NO_ID;
+        }
+    }
+
     private final class SelectAnimatorListener extends AnimatorListenerAdapter {
 
         @Nullable View mToSelect;
         @Nullable View mToDeselect;
+        boolean mCanceled;
+        /**
+         * True if transition is finished because list is hidden or detached, so user didn't
+         * see selection land.
+         */
+        boolean mStopped;
 
         @Override
         public void onAnimationStart(Animator animation) {
+            onTransitionStart();
+        }
+
+        @Override
+        public void onAnimationEnd(Animator animation) {
+            onTransitionEnd();
+        }
+
+        @Override
+        public void onAnimationCancel(Animator animation) {
+            onTransitionCancel();
+        }
+
+        void onTransitionStart() {
+            mCanceled = false;
+            mStopped = false;
             if (mToDeselect != null) {
                 childSetSelected(mToDeselect, false);
             }
         }
 
-        @Override
-        public void onAnimationEnd(Animator animation) {
+        void onTransitionEnd() {
+            if (mStopped) {
+                // Keep selected state but don't report selection nobody saw
+                if (mToSelect != null) {
+                    mToSelect.setSelected(true);
+                }
+                return;
+            }
+
             if (mToSelect != null) {
                 childSetSelected(mToSelect, true);
             }
+
+            // Canceled transition was overtaken by the next one, so selection didn't land
+            if (!mCanceled) {
+                onSelectionLanded();
+            }
         }
 
-        @Override
-        public void onAnimationCancel(Animator animation) {
-            onAnimationEnd(animation);
+        void onTransitionCancel() {
+            mCanceled = true;
+            onTransitionEnd();
         }
     }
 
@@ -210,23 +491,43 @@ public class DpadAwareRecyclerView extends RecyclerView implements
     private final Drawable.Callback mSelectorCallback = new Drawable.Callback() {
         @Override
         public void invalidateDrawable(@NonNull Drawable who) {
-            invalidate(who.getBounds());
+            if (getWindowVisibility() == VISIBLE) {
+                invalidate(who.getBounds());
+            }
         }
 
         @Override
         public void scheduleDrawable(Drawable who, Runnable what, long when) {
-            getHandler().postAtTime(what, who, when);
+            // Frames of invisible selector are not needed. Animation is restarted as soon as
+            // selector becomes visible again (see enforceSelectorsVisibility()).
+            Handler handler = getHandler();
+            if (handler != null && who.isVisible() && getWindowVisibility() == VISIBLE) {
+                handler.postAtTime(what, who, when);
+            }
         }
 
         @Override
         public void unscheduleDrawable(Drawable who, Runnable what) {
-            getHandler().removeCallbacks(what, who);
+            Handler handler = getHandler();
+            if (handler != null) {
+                handler.removeCallbacks(what, who);
+            }
         }
     };
 
     private OnItemClickListener mOnItemClickListener;
     private OnItemSelectedListener mOnItemSelectedListener;
 
+    /* Listener registry attributes */
+    /*
+       Arrays are replaced on every change and never modified, so dispatch iterates them
+       without copying even if listeners are added or removed meanwhile.
+     */
+    private OnItemClickListener[] mItemClickListeners = NO_ITEM_CLICK_LISTENERS;
+    private OnItemSelectedListener[] mItemSelectedListeners = NO_ITEM_SELECTED_LISTENERS;
+    private final NavigationEvent mNavigationEvent = new NavigationEvent();
+    /* Listener registry attributes */
+
     private final AdapterDataObserver mDataObserver = new LocalAdapterDataObserver();
 
     /**
@@ -241,20 +542,189 @@ public class DpadAwareRecyclerView extends RecyclerView implements
 
     private boolean mRememberLastFocus = true;
 
+    private boolean mAlignedNavigationEnabled = false;
+
+    private boolean mDirectionalFocusablesEnabled = false;
+
     private boolean mSmoothScrolling = false;
 
+    /* Section index attributes */
+    private final SectionIndex mSectionIndex = new SectionIndex();
+    private boolean mSectionIndexValid = false;
+    private int mNextSectionKeyCode = KeyEvent.KEYCODE_UNKNOWN;
+    private int mPreviousSectionKeyCode = KeyEvent.KEYCODE_UNKNOWN;
+    /* Section index attributes */
+
+    /* Navigation state attributes */
+    @NavigationState
+    private int mNavigationState = NAVIGATION_STATE_IDLE;
+    private boolean mNavigationKeyHeld = false;
+    private boolean mDeferredBindingEnabled = false;
+    /**
+     * True if some holder may be bound lightweight. Holders themselves are marked with
+     * {@code R.id.darv_lightweight_bind} tag which is cleared when they go to the pool.
+     */
+    private boolean mLightweightPending = false;
+    @Nullable
+    private RecyclerListener mRecyclerListener;
+    private final RecyclerListener mLightweightRecyclerListener = new RecyclerListener() {
+        @Override
+        public void onViewRecycled(ViewHolder holder) {
+            // Holder from the pool is rebound before it's shown again
+            setLightweight(holder, false);
+
+            if (mRecyclerListener != null) {
+                mRecyclerListener.onViewRecycled(holder);
+            }
+        }
+    };
+    private int[] mFullBindPositions = new int[0];
+    private OnNavigationStateChangedListener mOnNavigationStateChangedListener;
+    /* Navigation state attributes */
+
+    /* Recycled pool sizing attributes */
+    private boolean mPoolAutoSize = false;
+    private int mPoolLookaheadLines = 1;
+    private int mPoolCapacity = 0;
+    private final SparseBooleanArray mPoolSizedTypes = new SparseBooleanArray();
+    /* Recycled pool sizing attributes */
+
+    /**
+     * Incremented whenever pre-inflated holders may become stale, e.g. on adapter change.
+     */
+    private int mPrewarmGeneration = 0;
+    private Handler mMainHandler;
+
+    /* Choice attributes */
+    @ChoiceMode
+    private int mChoiceMode = CHOICE_MODE_NONE;
+    private final PositionRangeSet mCheckedPositions = new PositionRangeSet();
+    /**
+     * True if activated state of attached children must be refreshed after next layout.
+     */
+    private boolean mCheckedStateDirty = false;
+    /* Choice attributes */
+
+    /* Item key attributes */
+    private ItemKeyProvider mItemKeyProvider;
+    private Executor mItemKeyExecutor;
+    @Nullable
+    private Object mSelectedItemKey;
+    /**
+     * Incremented on every data set change or selection move so only the latest key lookup
+     * is applied.
+     */
+    private int mItemKeyGeneration = 0;
+    /**
+     * Selection which is kept while key lookup is in flight or {@link #NO_POSITION}.
+     */
+    private int mItemKeyLookupPosition = NO_POSITION;
+    /* Item key attributes */
+
     /* Selector attributes */
     private final Rect mSelectorSourceRect = new Rect();
     private final Rect mSelectorDestRect = new Rect();
     private final Interpolator mTransitionInterpolator = new LinearInterpolator();
     private final Animator[] mSelectorAnimators = new Animator[SELECTOR_COUNT];
     private final Drawable[] mSelectorDrawables = new Drawable[SELECTOR_COUNT];
+    private final int[] mSelectorResIds = new int[SELECTOR_COUNT];
+    private RectEvaluator mSelectorEvaluator;
+    /**
+     * True if selector animators are created and callbacks are wired. Happens on first focus.
+     */
+    private boolean mSelectorsPrepared = false;
     private AnimatorSet mSelectorAnimator; // Unfortunately cannot be reused
+    @Nullable
+    private SelectAnimatorListener mSelectorAnimatorListener;
     private int mSelectorVelocity = 0;
+    private boolean mSelectorHostEnabled = false;
     /* Selector attributes */
 
     private final SelectAnimatorListener mReusableSelectListener = new SelectAnimatorListener();
 
+    /* Selector coordinator attributes */
+    @Nullable
+    private SelectorCoordinator mSelectorCoordinator;
+    /**
+     * Listener of coordinated selector transition, null if there is no such transition running.
+     */
+    @Nullable
+    private SelectAnimatorListener mTransitionListener;
+    private long mTransitionStartNanos = 0;
+    private int mTransitionDuration = 0;
+    /* Selector coordinator attributes */
+
+    /* Navigation stats attributes */
+    @Nullable
+    private NavigationStats mNavigationStats;
+    /**
+     * Uptime of the last navigation key down which selection hasn't landed for yet, 0 if none.
+     */
+    private long mPendingKeyDownTime = 0;
+    private long mLastFrameTimeNanos = 0;
+    private boolean mFrameCallbackPosted = false;
+    private final Choreographer.FrameCallback mFrameCallback =
+            new Choreographer.FrameCallback() {
+                @Override
+                public void doFrame(long frameTimeNanos) {
+                    onFrame(frameTimeNanos);
+                }
+            };
+    /* Navigation stats attributes */
+
+    /* Adaptive quality attributes */
+    @Nullable
+    private QualityGovernor mQualityGovernor;
+    private OnQualityTierChangedListener mOnQualityTierChangedListener;
+    /* Adaptive quality attributes */
+
+    /* Joystick attributes */
+    private float mJoystickDeadZone = DEFAULT_JOYSTICK_DEAD_ZONE;
+    private float mJoystickCurve = DEFAULT_JOYSTICK_CURVE;
+    private int mJoystickMaxVelocity;
+    /**
+     * True while stick is deflected. This list holds focus itself during that time.
+     */
+    private boolean mJoystickScrolling = false;
+    /**
+     * Scroll velocity along orientation axis in pixels per second.
+     */
+    private float mJoystickVelocity = 0;
+    private float mJoystickScrollRemainder = 0;
+    private long mJoystickLastFrameNanos = 0;
+    /**
+     * Center of focused child when stick was deflected. Focus settles on the child nearest
+     * to it when stick is released.
+     */
+    private int mJoystickAnchorX = 0;
+    private int mJoystickAnchorY = 0;
+    private final Choreographer.FrameCallback mJoystickFrameCallback =
+            new Choreographer.FrameCallback() {
+                @Override
+                public void doFrame(long frameTimeNanos) {
+                    onJoystickFrame(frameTimeNanos);
+                }
+            };
+    /* Joystick attributes */
+
+    /**
+     * Cookie of async trace section spanning current key press, 0 if none.
+     */
+    private int mNavigationTraceCookie = 0;
+
+    @Nullable
+    private WorkCounters mWorkCounters;
+
+    @Nullable
+    private NavigationRecorder mNavigationRecorder;
+
+    private final Runnable mFullBindRunnable = new Runnable() {
+        @Override
+        public void run() {
+            requestFullBind();
+        }
+    };
+
     /**
      * {@inheritDoc}
      */
@@ -284,14 +754,15 @@ public class DpadAwareRecyclerView extends RecyclerView implements
             TypedArray ta = context.obtainStyledAttributes(attrs, R.styleable.DpadAwareRecyclerView,
                     defStyle, 0);
 
+            // Only resource ids are obtained here, drawables are loaded on first focus
             if (ta.hasValue(R.styleable.DpadAwareRecyclerView_backgroundSelector)) {
-                setBackgroundSelector(ta.getDrawable(
-                        R.styleable.DpadAwareRecyclerView_backgroundSelector));
+                setBackgroundSelector(ta.getResourceId(
+                        R.styleable.DpadAwareRecyclerView_backgroundSelector, 0));
             }
 
             if (ta.hasValue(R.styleable.DpadAwareRecyclerView_foregroundSelector)) {
-                setForegroundSelector(ta.getDrawable(
-                        R.styleable.DpadAwareRecyclerView_foregroundSelector));
+                setForegroundSelector(ta.getResourceId(
+                        R.styleable.DpadAwareRecyclerView_foregroundSelector, 0));
             }
 
             if (ta.hasValue(R.styleable.DpadAwareRecyclerView_selectorVelocity)) {
@@ -302,12 +773,19 @@ public class DpadAwareRecyclerView extends RecyclerView implements
             setSmoothScrolling(ta.getBoolean(
                     R.styleable.DpadAwareRecyclerView_smoothScrolling, false));
 
+            setSelectorHostEnabled(ta.getBoolean(
+                    R.styleable.DpadAwareRecyclerView_selectorHost, false));
+
             ta.recycle();
         }
 
         setFocusable(true);
         setDescendantFocusability(FOCUS_BEFORE_DESCENDANTS);
         setWillNotDraw(false);
+        super.setRecyclerListener(mLightweightRecyclerListener);
+
+        mJoystickMaxVelocity = (int) (DEFAULT_JOYSTICK_MAX_VELOCITY_DP
+                * getResources().getDisplayMetrics().density);
     }
 
     /**
@@ -328,6 +806,26 @@ public class DpadAwareRecyclerView extends RecyclerView implements
         return mSelectorVelocity;
     }
 
+    /**
+     * Makes this list draw selectors for nested DpadAwareRecyclerViews, e.g. for horizontal
+     * rows of a vertical list. Selectors of this list are drawn once in its coordinate space,
+     * so one transition covers both moves within a row and moves between rows. Selectors of
+     * nested lists are not drawn while they are hosted.
+     *
+     * @param enabled if true, draw selectors of nested lists
+     */
+    public void setSelectorHostEnabled(boolean enabled) {
+        mSelectorHostEnabled = enabled;
+    }
+
+    /**
+     * @return true if this list draws selectors of nested lists
+     * @see #setSelectorHostEnabled(boolean)
+     */
+    public boolean isSelectorHostEnabled() {
+        return mSelectorHostEnabled;
+    }
+
     /**
      * Sets smooth scrolling flag. If set to true, container will smoothly scroll to selected child
      * if it is outside of the viewport (by viewport one means some 'camera' rectangle, not
@@ -359,12 +857,13 @@ public class DpadAwareRecyclerView extends RecyclerView implements
     }
 
     /**
-     * Sets background selector which will be drawn behind the child.
+     * Sets background selector which will be drawn behind the child. Drawable is loaded
+     * when it's needed for the first time.
      *
      * @param resId selector drawable's resource ID
      */
     public void setBackgroundSelector(@DrawableRes int resId) {
-        setBackgroundSelector(getDrawableResource(resId));
+        setSelectorResource(BACKGROUND, resId);
     }
 
     /**
@@ -373,7 +872,7 @@ public class DpadAwareRecyclerView extends RecyclerView implements
      * @return background selector
      */
     public Drawable getBackgroundSelector() {
-        return getSelector(FOREGROUND);
+        return getSelector(BACKGROUND);
     }
 
     /**
@@ -386,12 +885,13 @@ public class DpadAwareRecyclerView extends RecyclerView implements
     }
 
     /**
-     * Sets foreground selector which will be drawn atop of the child.
+     * Sets foreground selector which will be drawn atop of the child. Drawable is loaded
+     * when it's needed for the first time.
      *
      * @param resId selector drawable's resource ID
      */
     public void setForegroundSelector(@DrawableRes int resId) {
-        setForegroundSelector(getDrawableResource(resId));
+        setSelectorResource(FOREGROUND, resId);
     }
 
     /**
@@ -406,105 +906,958 @@ public class DpadAwareRecyclerView extends RecyclerView implements
     private void setSelector(@Selector int index, Drawable drawable) {
         enforceSelectorIndexBounds(index);
 
+        releaseSelector(index);
+        mSelectorResIds[index] = 0;
         mSelectorDrawables[index] = drawable;
-        mSelectorAnimators[index] = createSelectorAnimator(drawable);
-        setSelectorCallback(drawable);
+
+        if (mSelectorsPrepared) {
+            prepareSelector(index);
+        }
+    }
+
+    private void setSelectorResource(@Selector int index, @DrawableRes int resId) {
+        enforceSelectorIndexBounds(index);
+
+        releaseSelector(index);
+        mSelectorDrawables[index] = null;
+        mSelectorResIds[index] = resId;
+
+        if (mSelectorsPrepared) {
+            prepareSelector(index);
+        }
     }
 
     private Drawable getSelector(int index) {
         enforceSelectorIndexBounds(index);
 
+        loadSelector(index);
         return mSelectorDrawables[index];
     }
 
     /**
-     * Ensures that passed number is valid selector index.
-     *
-     * @param index selector index
-     * @throws IndexOutOfBoundsException if index is not valid selector index
+     * Loads selector drawable if only its resource ID is known.
      */
-    private void enforceSelectorIndexBounds(int index) {
-        if (index < 0 || index >= SELECTOR_COUNT) {
-            throw new IndexOutOfBoundsException("Passed index is not in valid range which is"
-                    + " [0; " + SELECTOR_COUNT + ").");
+    private void loadSelector(@Selector int index) {
+        if (mSelectorDrawables[index] == null && mSelectorResIds[index] != 0) {
+            mSelectorDrawables[index] = getDrawableResource(mSelectorResIds[index]);
         }
     }
 
-    /**
-     * Register a callback to be invoked when an item in this RecyclerView has
-     * been clicked.
-     *
-     * @param listener the callback that will be invoked
-     */
-    public void setOnItemClickListener(OnItemClickListener listener) {
-        mOnItemClickListener = listener;
+    private boolean hasSelectors() {
+        for (int i = 0; i < SELECTOR_COUNT; i++) {
+            if (mSelectorDrawables[i] != null || mSelectorResIds[i] != 0) {
+                return true;
+            }
+        }
+
+        return false;
     }
 
     /**
-     * @return the callback to be invoked with an item in this RecyclerView has
-     *         been clicked, or null if no callback has been set
+     * Creates selector animators and wires selector callbacks. Postponed until first focus
+     * so lists that are never focused don't pay for it.
      */
-    public OnItemClickListener getOnItemClickListener() {
-        return mOnItemClickListener;
+    private void prepareSelectors() {
+        if (mSelectorsPrepared) {
+            return;
+        }
+
+        for (int i = 0; i < SELECTOR_COUNT; i++) {
+            prepareSelector(i);
+        }
+
+        mSelectorsPrepared = true;
+        enforceSelectorsVisibility(isInTouchMode(), hasFocus());
     }
 
-    /**
-     * Register a callback to be invoked when an item in this RecyclerView has
-     * been selected.
-     *
-     * @param listener the callback that will run
-     */
-    public void setOnItemSelectedListener(OnItemSelectedListener listener) {
-        mOnItemSelectedListener = listener;
+    private void prepareSelector(@Selector int index) {
+        loadSelector(index);
+
+        Drawable selector = mSelectorDrawables[index];
+        if (selector != null) {
+            mSelectorAnimators[index] = createSelectorAnimator(selector);
+            selector.setCallback(mSelectorCallback);
+        }
     }
 
     /**
-     * @return the callback to be invoked with an item in this RecyclerView has
-     *         been selected, or null if no callback has been set
+     * Finishes selector transition and stops selector drawables' own animations. Selectors
+     * are resumed by {@link #enforceSelectorsVisibility(boolean, boolean)}.
      */
-    public OnItemSelectedListener getOnItemSelectedListener() {
-        return mOnItemSelectedListener;
-    }
+    private void stopSelectors() {
+        if (mSelectorAnimator != null) {
+            if (mSelectorAnimatorListener != null) {
+                mSelectorAnimatorListener.mStopped = true;
+            }
+            // Cannot pause on API < 19, so jump straight to the destination
+            mSelectorAnimator.end();
+        }
+        if (mTransitionListener != null) {
+            mTransitionListener.mStopped = true;
+        }
+        finishSelectorTransition(false);
+
+        Handler handler = getHandler();
+        for (Drawable selector : mSelectorDrawables) {
+            if (selector != null) {
+                selector.setVisible(false, false);
+                if (handler != null) {
+                    handler.removeCallbacksAndMessages(selector);
+                }
+            }
+        }
+    }
+
+    /**
+     * Releases everything {@link #prepareSelectors()} created.
+     */
+    private void releaseSelectors() {
+        if (mSelectorAnimator != null) {
+            mSelectorAnimator.cancel();
+            mSelectorAnimator = null;
+            mSelectorAnimatorListener = null;
+        }
+        finishSelectorTransition(true);
+
+        for (int i = 0; i < SELECTOR_COUNT; i++) {
+            releaseSelector(i);
+        }
+
+        mSelectorsPrepared = false;
+    }
+
+    private void releaseSelector(@Selector int index) {
+        mSelectorAnimators[index] = null;
+
+        Drawable selector = mSelectorDrawables[index];
+        if (selector != null) {
+            selector.setCallback(null);
+        }
+    }
+
+    /**
+     * Ensures that passed number is valid selector index.
+     *
+     * @param index selector index
+     * @throws IndexOutOfBoundsException if index is not valid selector index
+     */
+    private void enforceSelectorIndexBounds(int index) {
+        if (index < 0 || index >= SELECTOR_COUNT) {
+            throw new IndexOutOfBoundsException("Passed index is not in valid range which is"
+                    + " [0; " + SELECTOR_COUNT + ").");
+        }
+    }
+
+    /**
+     * Register a callback to be invoked when an item in this RecyclerView has
+     * been clicked.
+     *
+     * @param listener the callback that will be invoked
+     */
+    public void setOnItemClickListener(OnItemClickListener listener) {
+        mOnItemClickListener = listener;
+    }
+
+    /**
+     * @return the callback to be invoked with an item in this RecyclerView has
+     *         been clicked, or null if no callback has been set
+     */
+    public OnItemClickListener getOnItemClickListener() {
+        return mOnItemClickListener;
+    }
+
+    /**
+     * Register a callback to be invoked when an item in this RecyclerView has
+     * been selected.
+     *
+     * @param listener the callback that will run
+     */
+    public void setOnItemSelectedListener(OnItemSelectedListener listener) {
+        mOnItemSelectedListener = listener;
+    }
+
+    /**
+     * @return the callback to be invoked with an item in this RecyclerView has
+     *         been selected, or null if no callback has been set
+     */
+    public OnItemSelectedListener getOnItemSelectedListener() {
+        return mOnItemSelectedListener;
+    }
+
+    /**
+     * Add a callback to be invoked when an item has been clicked. Unlike
+     * {@link #setOnItemClickListener(OnItemClickListener)} any number of callbacks may be added.
+     * Adding the same callback twice has no effect.
+     *
+     * @param listener the callback to add
+     */
+    public void addOnItemClickListener(@NonNull OnItemClickListener listener) {
+        mItemClickListeners = appendListener(mItemClickListeners, listener);
+    }
+
+    /**
+     * Remove a callback added with {@link #addOnItemClickListener(OnItemClickListener)}.
+     *
+     * @param listener the callback to remove
+     */
+    public void removeOnItemClickListener(@NonNull OnItemClickListener listener) {
+        mItemClickListeners = removeListener(mItemClickListeners, listener);
+    }
+
+    /**
+     * Add a callback to be invoked when an item has been focused and selected. Unlike
+     * {@link #setOnItemSelectedListener(OnItemSelectedListener)} any number of callbacks may be
+     * added. Adding the same callback twice has no effect.
+     *
+     * @param listener the callback to add
+     */
+    public void addOnItemSelectedListener(@NonNull OnItemSelectedListener listener) {
+        mItemSelectedListeners = appendListener(mItemSelectedListeners, listener);
+    }
+
+    /**
+     * Remove a callback added with {@link #addOnItemSelectedListener(OnItemSelectedListener)}.
+     *
+     * @param listener the callback to remove
+     */
+    public void removeOnItemSelectedListener(@NonNull OnItemSelectedListener listener) {
+        mItemSelectedListeners = removeListener(mItemSelectedListeners, listener);
+    }
+
+    private static <T> T[] appendListener(@NonNull T[] listeners, @NonNull T listener) {
+        for (T registered : listeners) {
+            if (registered == listener) {
+                return listeners;
+            }
+        }
+
+        T[] result = Arrays.copyOf(listeners, listeners.length + 1);
+        result[listeners.length] = listener;
+        return result;
+    }
+
+    private static <T> T[] removeListener(@NonNull T[] listeners, @NonNull T listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                T[] result = Arrays.copyOf(listeners, listeners.length - 1);
+                System.arraycopy(listeners, i + 1, result, i, listeners.length - i - 1);
+                return result;
+            }
+        }
+
+        return listeners;
+    }
+
+    /**
+     * Get adapter position of item that is currently focused/selected.
+     *
+     * @return selected item's adapter position
+     */
+    public int getSelectedItemPosition() {
+        View focusedChild = getFocusedChild();
+        return getChildAdapterPosition(focusedChild);
+    }
+
+    /**
+     * Set adapter position for item to select if RecycleView currently has focus or schedule
+     * selection on next focus obtainment.
+     *
+     * @param adapterPosition adapter position of item to be selected
+     */
+    public void setSelection(int adapterPosition) {
+        scrollToPosition(adapterPosition);
+        mPendingSelectionInt = adapterPosition;
+    }
+
+    /**
+     * Sets choice mode. Checked items are marked as activated (see
+     * {@link View#setActivated(boolean)}) and D-pad center/enter key toggles focused item.
+     * Changing mode clears all choices.
+     *
+     * @param choiceMode one of {@link #CHOICE_MODE_NONE}, {@link #CHOICE_MODE_SINGLE} or
+     *                   {@link #CHOICE_MODE_MULTIPLE}
+     */
+    public void setChoiceMode(@ChoiceMode int choiceMode) {
+        if (mChoiceMode != choiceMode) {
+            mChoiceMode = choiceMode;
+            clearChoices();
+        }
+    }
+
+    /**
+     * Gets choice mode.
+     *
+     * @return current choice mode
+     * @see #setChoiceMode(int)
+     */
+    @ChoiceMode
+    public int getChoiceMode() {
+        return mChoiceMode;
+    }
+
+    /**
+     * Sets checked state of item at passed position. Has no effect if choice mode is
+     * {@link #CHOICE_MODE_NONE}.
+     *
+     * @param position adapter position
+     * @param checked  true to check item
+     */
+    public void setItemChecked(int position, boolean checked) {
+        if (mChoiceMode == CHOICE_MODE_NONE || position < 0
+                || mCheckedPositions.contains(position) == checked) {
+            return;
+        }
+
+        if (mChoiceMode == CHOICE_MODE_SINGLE && checked) {
+            mCheckedPositions.clear();
+        }
+
+        mCheckedPositions.toggle(position);
+        refreshCheckedState();
+    }
+
+    /**
+     * Gets checked state of item at passed position.
+     *
+     * @param position adapter position
+     * @return true if item is checked
+     */
+    public boolean isItemChecked(int position) {
+        return mCheckedPositions.contains(position);
+    }
+
+    /**
+     * @return number of checked items
+     */
+    public int getCheckedItemCount() {
+        return mCheckedPositions.size();
+    }
+
+    /**
+     * Gets checked positions as sorted ranges. Returned set is live and kept in sync with
+     * adapter changes, so it must not be held while adapter changes are expected.
+     *
+     * @return set of checked positions
+     */
+    @NonNull
+    public PositionRangeSet getCheckedItemPositions() {
+        return mCheckedPositions;
+    }
+
+    /**
+     * Unchecks all items.
+     */
+    public void clearChoices() {
+        if (mCheckedPositions.size() > 0) {
+            mCheckedPositions.clear();
+            refreshCheckedState();
+        }
+    }
+
+    /**
+     * Set item key provider used to keep selection on the same item after
+     * {@link Adapter#notifyDataSetChanged()} if adapter has no stable ids. New position of
+     * selected item is looked up on {@link AsyncTask#SERIAL_EXECUTOR}.
+     *
+     * @param provider item key provider or null to disable
+     */
+    public void setItemKeyProvider(@Nullable ItemKeyProvider provider) {
+        setItemKeyProvider(provider, AsyncTask.SERIAL_EXECUTOR);
+    }
+
+    /**
+     * Set item key provider used to keep selection on the same item after
+     * {@link Adapter#notifyDataSetChanged()} if adapter has no stable ids.
+     *
+     * @param provider item key provider or null to disable
+     * @param executor executor on which new position of selected item is looked up
+     */
+    public void setItemKeyProvider(@Nullable ItemKeyProvider provider,
+            @NonNull Executor executor) {
+        mItemKeyProvider = provider;
+        mItemKeyExecutor = executor;
+        mSelectedItemKey = null;
+        cancelItemKeyLookup();
+    }
+
+    /**
+     * @return item key provider or null if no provider has been set
+     */
+    @Nullable
+    public ItemKeyProvider getItemKeyProvider() {
+        return mItemKeyProvider;
+    }
+
+    /**
+     * Get flag indicating that last focused view should be remembered in order to re-focus
+     * it in future.
+     *
+     * @return true if focus remembering is enabled, otherwise disable
+     */
+    public boolean isRememberLastFocus() {
+        return mRememberLastFocus;
+    }
+
+    /**
+     * Set flag indicating that last focused view should be remembered in order to re-focus
+     * it in future.
+     *
+     * @param rememberLastFocus true to enable focus remembering, otherwise disable
+     */
+    public void setRememberLastFocus(boolean rememberLastFocus) {
+        mRememberLastFocus = rememberLastFocus;
+    }
+
+    /**
+     * Set flag indicating that focus coming from outside across list's orientation should
+     * land on the item aligned with previously focused one, e.g. on the same column for a
+     * horizontal row when user presses DOWN in the row above. Target is computed from
+     * {@link ExtGridLayoutManager} geometry, laid out at previously focused item's offset and
+     * focused in the same layout pass. Applies only when natural focus is favored (see
+     * {@link #setRememberLastFocus(boolean)}).
+     *
+     * @param enabled true to enable aligned navigation
+     */
+    public void setAlignedNavigationEnabled(boolean enabled) {
+        mAlignedNavigationEnabled = enabled;
+    }
+
+    /**
+     * @return true if aligned navigation is enabled
+     * @see #setAlignedNavigationEnabled(boolean)
+     */
+    public boolean isAlignedNavigationEnabled() {
+        return mAlignedNavigationEnabled;
+    }
+
+    /**
+     * Set flag indicating that focus search in arrow directions should only consider views
+     * which can be reached in that direction: focusables inside focused child and children in
+     * the nearest line beyond focused child. Adjacent nested lists are such children too, they
+     * contribute only themselves and restore their remembered child on focus. Cost of a focus
+     * search then doesn't grow with number of visible cells.
+     *
+     * @param enabled true to restrict focusables to directional neighbours
+     */
+    public void setDirectionalFocusablesEnabled(boolean enabled) {
+        mDirectionalFocusablesEnabled = enabled;
+    }
+
+    /**
+     * @return true if focusables are restricted to directional neighbours
+     * @see #setDirectionalFocusablesEnabled(boolean)
+     */
+    public boolean isDirectionalFocusablesEnabled() {
+        return mDirectionalFocusablesEnabled;
+    }
+
+    /**
+     * Sets joystick dead zone. Stick deflection at or below it is treated as released. Device's
+     * own flat range is used instead if it is bigger. Default is 0.2.
+     *
+     * @param deadZone absolute axis value in [0; 1)
+     */
+    public void setJoystickDeadZone(float deadZone) {
+        if (deadZone < 0 || deadZone >= 1) {
+            throw new IllegalArgumentException("Dead zone must be in [0; 1)");
+        }
+
+        mJoystickDeadZone = deadZone;
+    }
+
+    /**
+     * @return joystick dead zone
+     * @see #setJoystickDeadZone(float)
+     */
+    public float getJoystickDeadZone() {
+        return mJoystickDeadZone;
+    }
+
+    /**
+     * Sets exponent applied to stick deflection beyond dead zone before it's mapped to scroll
+     * velocity. 1 is linear, bigger values give finer control near the center. Default is 2.
+     *
+     * @param curve positive exponent
+     */
+    public void setJoystickCurve(float curve) {
+        if (curve <= 0) {
+            throw new IllegalArgumentException("Curve must be > 0");
+        }
+
+        mJoystickCurve = curve;
+    }
+
+    /**
+     * @return joystick curve exponent
+     * @see #setJoystickCurve(float)
+     */
+    public float getJoystickCurve() {
+        return mJoystickCurve;
+    }
+
+    /**
+     * Sets scroll velocity at full stick deflection. Default is 2000dp per second.
+     *
+     * @param velocity velocity in pixels per second
+     */
+    public void setJoystickMaxVelocity(int velocity) {
+        mJoystickMaxVelocity = Math.max(0, velocity);
+    }
+
+    /**
+     * @return scroll velocity at full stick deflection in pixels per second
+     * @see #setJoystickMaxVelocity(int)
+     */
+    public int getJoystickMaxVelocity() {
+        return mJoystickMaxVelocity;
+    }
+
+    /**
+     * Gets current navigation speed state.
+     *
+     * @return one of {@link #NAVIGATION_STATE_IDLE}, {@link #NAVIGATION_STATE_STEPPING} or
+     * {@link #NAVIGATION_STATE_FAST}
+     */
+    @NavigationState
+    public int getNavigationState() {
+        return mNavigationState;
+    }
+
+    /**
+     * Register a callback to be invoked when navigation speed state changes.
+     *
+     * @param listener the callback that will run
+     */
+    public void setOnNavigationStateChangedListener(OnNavigationStateChangedListener listener) {
+        mOnNavigationStateChangedListener = listener;
+    }
+
+    /**
+     * @return the callback to be invoked when navigation speed state changes, or null if no
+     *         callback has been set
+     */
+    public OnNavigationStateChangedListener getOnNavigationStateChangedListener() {
+        return mOnNavigationStateChangedListener;
+    }
+
+    /**
+     * Set flag indicating that navigation metrics should be collected: time from D-pad key
+     * down to selector arriving at selected item and durations of frames drawn while user
+     * navigates. Disabling drops collected metrics.
+     *
+     * @param enabled true to collect metrics
+     * @see #getNavigationStats()
+     */
+    public void setNavigationStatsEnabled(boolean enabled) {
+        if (enabled && mNavigationStats == null) {
+            mNavigationStats = new NavigationStats();
+        } else if (!enabled && mNavigationStats != null) {
+            mNavigationStats = null;
+            mPendingKeyDownTime = 0;
+            if (mQualityGovernor == null) {
+                stopFrameMonitor();
+            }
+        }
+    }
+
+    /**
+     * Get flag indicating that navigation metrics are collected.
+     *
+     * @return true if metrics are collected
+     */
+    public boolean isNavigationStatsEnabled() {
+        return mNavigationStats != null;
+    }
+
+    /**
+     * Gets collected navigation metrics.
+     *
+     * @return metrics or null if collection is disabled
+     * @see #setNavigationStatsEnabled(boolean)
+     */
+    @Nullable
+    public NavigationStats getNavigationStats() {
+        return mNavigationStats;
+    }
+
+    /**
+     * Attach counters of layout, bind and focus work. Counters are also attached to
+     * {@link ExtGridLayoutManager} and {@link SizedRecycledViewPool} if those are used.
+     *
+     * @param workCounters counters or null to stop counting
+     */
+    public void setWorkCounters(@Nullable WorkCounters workCounters) {
+        mWorkCounters = workCounters;
+        attachWorkCounters();
+    }
+
+    /**
+     * @return attached work counters or null if none are attached
+     */
+    @Nullable
+    public WorkCounters getWorkCounters() {
+        return mWorkCounters;
+    }
+
+    /**
+     * Set coordinator which hands selector over between this and other lists sharing it and
+     * drives their selector transitions from one frame callback.
+     *
+     * @param coordinator coordinator or null to animate selectors independently
+     */
+    public void setSelectorCoordinator(@Nullable SelectorCoordinator coordinator) {
+        if (mSelectorCoordinator == coordinator) {
+            return;
+        }
+
+        finishSelectorTransition(false);
+        if (mSelectorCoordinator != null) {
+            mSelectorCoordinator.unregister(this);
+        }
+
+        mSelectorCoordinator = coordinator;
+
+        if (coordinator != null && getWindowToken() != null) {
+            coordinator.register(this);
+        }
+    }
+
+    /**
+     * @return selector coordinator or null if none has been set
+     */
+    @Nullable
+    public SelectorCoordinator getSelectorCoordinator() {
+        return mSelectorCoordinator;
+    }
+
+    /**
+     * Set recorder which logs every key event reaching this view together with focused
+     * position and adapter size.
+     *
+     * @param recorder recorder or null to stop recording
+     * @see NavigationReplayer
+     */
+    public void setNavigationRecorder(@Nullable NavigationRecorder recorder) {
+        mNavigationRecorder = recorder;
+    }
+
+    /**
+     * @return navigation recorder or null if no recorder has been set
+     */
+    @Nullable
+    public NavigationRecorder getNavigationRecorder() {
+        return mNavigationRecorder;
+    }
+
+    private void attachWorkCounters() {
+        LayoutManager layoutManager = getLayoutManager();
+        if (layoutManager instanceof ExtGridLayoutManager) {
+            ((ExtGridLayoutManager) layoutManager).setWorkCounters(mWorkCounters);
+        }
+
+        RecycledViewPool pool = getRecycledViewPool();
+        if (pool instanceof SizedRecycledViewPool) {
+            ((SizedRecycledViewPool) pool).setWorkCounters(mWorkCounters);
+        }
+    }
+
+    /**
+     * Set flag indicating that effects should be degraded automatically when frames are
+     * dropped during navigation: first selector transitions get faster, then selector moves
+     * instantly, then list scrolls immediately instead of smoothly. Effects are restored step
+     * by step once frames recover.
+     *
+     * @param enabled true to enable adaptive quality
+     * @see #setOnQualityTierChangedListener(OnQualityTierChangedListener)
+     */
+    public void setAdaptiveQualityEnabled(boolean enabled) {
+        if (enabled && mQualityGovernor == null) {
+            mQualityGovernor = new QualityGovernor(QUALITY_TIER_NO_SMOOTH_SCROLL);
+        } else if (!enabled && mQualityGovernor != null) {
+            boolean degraded = mQualityGovernor.getTier() != QUALITY_TIER_FULL;
+            mQualityGovernor = null;
+            if (mNavigationStats == null) {
+                stopFrameMonitor();
+            }
+            if (degraded) {
+                dispatchQualityTierChanged();
+            }
+        }
+    }
+
+    /**
+     * Restores full quality and drops frame counts, e.g. when content changes completely.
+     */
+    private void resetQualityGovernor() {
+        if (mQualityGovernor != null) {
+            boolean degraded = mQualityGovernor.getTier() != QUALITY_TIER_FULL;
+            mQualityGovernor.reset();
+            if (degraded) {
+                dispatchQualityTierChanged();
+            }
+        }
+    }
+
+    /**
+     * Get flag indicating that effects are degraded automatically when frames are dropped.
+     *
+     * @return true if adaptive quality is enabled
+     */
+    public boolean isAdaptiveQualityEnabled() {
+        return mQualityGovernor != null;
+    }
+
+    /**
+     * Gets current quality tier of effects.
+     *
+     * @return one of {@link #QUALITY_TIER_FULL}, {@link #QUALITY_TIER_FAST_SELECTOR},
+     * {@link #QUALITY_TIER_INSTANT_SELECTOR} or {@link #QUALITY_TIER_NO_SMOOTH_SCROLL}
+     */
+    @QualityTier
+    public int getQualityTier() {
+        //noinspection ResourceType
+        return mQualityGovernor != null ? mQualityGovernor.getTier() : QUALITY_TIER_FULL;
+    }
+
+    /**
+     * Register a callback to be invoked when adaptive quality tier changes.
+     *
+     * @param listener the callback that will run
+     */
+    public void setOnQualityTierChangedListener(OnQualityTierChangedListener listener) {
+        mOnQualityTierChangedListener = listener;
+    }
+
+    /**
+     * @return the callback to be invoked when adaptive quality tier changes, or null if no
+     *         callback has been set
+     */
+    public OnQualityTierChangedListener getOnQualityTierChangedListener() {
+        return mOnQualityTierChangedListener;
+    }
+
+    private void dispatchQualityTierChanged() {
+        if (mOnQualityTierChangedListener != null) {
+            mOnQualityTierChangedListener.onQualityTierChanged(this, getQualityTier());
+        }
+    }
+
+    /**
+     * Set flag indicating that adapter binds items lightweight while navigation state is
+     * {@link #NAVIGATION_STATE_FAST}. In that case items attached during fast navigation
+     * are remembered and, once navigation settles, those still visible are notified
+     * with {@link #PAYLOAD_FULL_BIND} payload.
+     *
+     * @param enabled true if adapter does lightweight binding during fast navigation
+     */
+    public void setDeferredBindingEnabled(boolean enabled) {
+        mDeferredBindingEnabled = enabled;
+        if (!enabled) {
+            mLightweightPending = false;
+            int childCount = getChildCount();
+            for (int i = 0; i < childCount; i++) {
+                setLightweight(getChildViewHolder(getChildAt(i)), false);
+            }
+        }
+    }
+
+    /**
+     * Get flag indicating that adapter binds items lightweight during fast navigation.
+     *
+     * @return true if deferred binding is enabled
+     * @see #setDeferredBindingEnabled(boolean)
+     */
+    public boolean isDeferredBindingEnabled() {
+        return mDeferredBindingEnabled;
+    }
+
+    /**
+     * Set flag indicating that recycled view pool and view cache should be sized after visible
+     * footprint of {@link ExtGridLayoutManager}, i.e. span count multiplied by number of
+     * visible lines plus lookahead lines. Has no effect with other layout managers.
+     * <p>
+     * Nested lists should share one {@link SizedRecycledViewPool} so its capacity is only
+     * grown to the largest footprint.
+     *
+     * @param autoSize true to enable auto sizing
+     * @see #setRecycledViewPoolLookahead(int)
+     */
+    public void setRecycledViewPoolAutoSize(boolean autoSize) {
+        mPoolAutoSize = autoSize;
+        invalidatePoolSize();
+        if (autoSize) {
+            requestLayout();
+        }
+    }
+
+    /**
+     * Get flag indicating that recycled view pool is sized after visible footprint.
+     *
+     * @return true if auto sizing is enabled
+     * @see #setRecycledViewPoolAutoSize(boolean)
+     */
+    public boolean isRecycledViewPoolAutoSize() {
+        return mPoolAutoSize;
+    }
+
+    /**
+     * Sets number of lines beyond visible ones that recycled view pool and view cache should
+     * hold. Default is 1.
+     *
+     * @param lines lookahead lines
+     * @see #setRecycledViewPoolAutoSize(boolean)
+     */
+    public void setRecycledViewPoolLookahead(int lines) {
+        mPoolLookaheadLines = Math.max(0, lines);
+        invalidatePoolSize();
+    }
+
+    /**
+     * Gets number of lines beyond visible ones that recycled view pool and view cache hold.
+     *
+     * @return lookahead lines
+     */
+    public int getRecycledViewPoolLookahead() {
+        return mPoolLookaheadLines;
+    }
+
+    /**
+     * Inflate view holders of passed type on background executor and put them into recycled
+     * view pool, so first layout doesn't need to inflate them. Should be called after adapter
+     * is set and before first layout. Adapter's
+     * {@link Adapter#onCreateViewHolder(ViewGroup, int)} must be safe to call off the main
+     * thread for passed view type.
+     *
+     * @param viewType view type to inflate
+     * @param count    number of holders, e.g. obtained from
+     *                 {@link ExtGridLayoutManager#estimateVisibleItemCount(int, int)}
+     */
+    public void prewarmViewHolders(int viewType, int count) {
+        prewarmViewHolders(viewType, count, AsyncTask.THREAD_POOL_EXECUTOR);
+    }
+
+    /**
+     * Inflate view holders of passed type on passed executor and put them into recycled view
+     * pool.
+     *
+     * @param viewType view type to inflate
+     * @param count    number of holders
+     * @param executor executor to inflate holders on
+     * @see #prewarmViewHolders(int, int)
+     */
+    public void prewarmViewHolders(final int viewType, final int count,
+            @NonNull Executor executor) {
+        final Adapter adapter = getAdapter();
+        if (adapter == null || count <= 0) {
+            return;
+        }
+
+        final Handler mainHandler = getMainHandler();
+        final int generation = mPrewarmGeneration;
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final ViewHolder[] holders = new ViewHolder[count];
+                for (int i = 0; i < count; i++) {
+                    holders[i] = adapter.createViewHolder(DpadAwareRecyclerView.this, viewType);
+                }
+
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        putPrewarmedViewHolders(adapter, generation, viewType, holders);
+                    }
+                });
+            }
+        });
+    }
 
-    /**
-     * Get adapter position of item that is currently focused/selected.
-     *
-     * @return selected item's adapter position
-     */
-    public int getSelectedItemPosition() {
-        View focusedChild = getFocusedChild();
-        return getChildAdapterPosition(focusedChild);
+    private Handler getMainHandler() {
+        if (mMainHandler == null) {
+            mMainHandler = new Handler(Looper.getMainLooper());
+        }
+
+        return mMainHandler;
+    }
+
+    private void putPrewarmedViewHolders(Adapter adapter, int generation, int viewType,
+            ViewHolder[] holders) {
+        if (adapter != getAdapter() || generation != mPrewarmGeneration) {
+            return;
+        }
+
+        RecycledViewPool pool = getRecycledViewPool();
+        if (pool instanceof SizedRecycledViewPool) {
+            ((SizedRecycledViewPool) pool).ensureMaxRecycledViews(viewType, holders.length);
+        } else {
+            pool.setMaxRecycledViews(viewType,
+                    Math.max(holders.length, Math.max(mPoolCapacity, DEFAULT_MAX_SCRAP)));
+        }
+
+        for (ViewHolder holder : holders) {
+            pool.putRecycledView(holder);
+        }
     }
 
     /**
-     * Set adapter position for item to select if RecycleView currently has focus or schedule
-     * selection on next focus obtainment.
+     * Bind keys which jump selection between sections supplied by adapter implementing
+     * {@link SectionProvider}. Pass {@link KeyEvent#KEYCODE_UNKNOWN} to unbind.
      *
-     * @param adapterPosition adapter position of item to be selected
+     * @param nextKeyCode     key code which jumps to the next section
+     * @param previousKeyCode key code which jumps to the previous section
      */
-    public void setSelection(int adapterPosition) {
-        scrollToPosition(adapterPosition);
-        mPendingSelectionInt = adapterPosition;
+    public void setSectionJumpKeys(int nextKeyCode, int previousKeyCode) {
+        mNextSectionKeyCode = nextKeyCode;
+        mPreviousSectionKeyCode = previousKeyCode;
     }
 
     /**
-     * Get flag indicating that last focused view should be remembered in order to re-focus
-     * it in future.
+     * Select first item of the section following currently selected one. Adapter must implement
+     * {@link SectionProvider}, otherwise nothing happens.
      *
-     * @return true if focus remembering is enabled, otherwise disable
+     * @return true if selection jumped
      */
-    public boolean isRememberLastFocus() {
-        return mRememberLastFocus;
+    public boolean jumpToNextSection() {
+        ensureSectionIndex();
+        return jumpToSection(mSectionIndex.getNextSectionStart(getSelectedItemPosition()));
     }
 
     /**
-     * Set flag indicating that last focused view should be remembered in order to re-focus
-     * it in future.
+     * Select first item of the section preceding currently selected one. Adapter must implement
+     * {@link SectionProvider}, otherwise nothing happens.
      *
-     * @param rememberLastFocus true to enable focus remembering, otherwise disable
+     * @return true if selection jumped
      */
-    public void setRememberLastFocus(boolean rememberLastFocus) {
-        mRememberLastFocus = rememberLastFocus;
+    public boolean jumpToPreviousSection() {
+        ensureSectionIndex();
+        return jumpToSection(mSectionIndex.getPreviousSectionStart(getSelectedItemPosition()));
+    }
+
+    private boolean jumpToSection(int position) {
+        if (position == NO_POSITION) {
+            return false;
+        }
+
+        // Sticky header can't be selected, its section's first item is selected instead
+        LayoutManager layoutManager = getLayoutManager();
+        if (layoutManager instanceof ExtGridLayoutManager
+                && ((ExtGridLayoutManager) layoutManager).isHeader(position)
+                && position + 1 < layoutManager.getItemCount()) {
+            position++;
+        }
+
+        // Scrolling goes through layout manager so camera offset is applied as well
+        setSelection(position);
+        return true;
+    }
+
+    private void ensureSectionIndex() {
+        if (!mSectionIndexValid) {
+            Adapter adapter = getAdapter();
+            mSectionIndex.set(adapter instanceof SectionProvider
+                    ? ((SectionProvider) adapter).getSectionPositions() : null);
+            mSectionIndexValid = true;
+        }
     }
 
     @Override
@@ -523,21 +1876,124 @@ public class DpadAwareRecyclerView extends RecyclerView implements
 
         super.setAdapter(newAdapter);
 
+        mSectionIndexValid = false;
+        mNavigationEvent.clear();
+        mLightweightPending = false;
+        resetQualityGovernor();
+        invalidatePoolSize();
+        mPrewarmGeneration++;
+        mSelectedItemKey = null;
+        cancelItemKeyLookup();
+        mCheckedPositions.clear();
+
         if (newAdapter != null) {
             newAdapter.registerAdapterDataObserver(mDataObserver);
         }
     }
 
+    @Override
+    public void setLayoutManager(LayoutManager layout) {
+        LayoutManager oldLayout = getLayoutManager();
+        if (oldLayout instanceof ExtGridLayoutManager) {
+            ((ExtGridLayoutManager) oldLayout).setWorkCounters(null);
+        }
+
+        super.setLayoutManager(layout);
+
+        if (mWorkCounters != null) {
+            attachWorkCounters();
+        }
+    }
+
+    @Override
+    public void setRecycledViewPool(RecycledViewPool pool) {
+        super.setRecycledViewPool(pool);
+        invalidatePoolSize();
+
+        if (mWorkCounters != null) {
+            attachWorkCounters();
+        }
+    }
+
+    @Override
+    protected void onMeasure(int widthSpec, int heightSpec) {
+        if (mWorkCounters != null) {
+            mWorkCounters.onMeasure();
+        }
+
+        super.onMeasure(widthSpec, heightSpec);
+    }
+
     @Override
     protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        boolean traced = NavigationTrace.beginSection(TRACE_ON_LAYOUT);
+        try {
+            onLayoutInner(changed, l, t, r, b);
+        } finally {
+            NavigationTrace.endSection(traced);
+        }
+    }
+
+    private void onLayoutInner(boolean changed, int l, int t, int r, int b) {
         super.onLayout(changed, l, t, r, b);
 
+        autoSizeRecycledViewPool();
+
+        if (mCheckedStateDirty) {
+            mCheckedStateDirty = false;
+            refreshCheckedState();
+        }
+
         if (mPendingSelectionInt != NO_POSITION) {
             setSelectionOnLayout(mPendingSelectionInt);
             mPendingSelectionInt = NO_POSITION;
         }
     }
 
+    private void invalidatePoolSize() {
+        mPoolCapacity = 0;
+        mPoolSizedTypes.clear();
+    }
+
+    /**
+     * Sizes pool for every view type currently on screen. Each type is sized only once per
+     * footprint change.
+     */
+    private void autoSizeRecycledViewPool() {
+        if (!mPoolAutoSize || !(getLayoutManager() instanceof ExtGridLayoutManager)) {
+            return;
+        }
+
+        ExtGridLayoutManager layoutManager = (ExtGridLayoutManager) getLayoutManager();
+        int lines = layoutManager.getVisibleLineCount();
+        if (lines == 0) {
+            return;
+        }
+
+        int spanCount = layoutManager.getSpanCount();
+        int capacity = spanCount * (lines + mPoolLookaheadLines);
+        if (capacity != mPoolCapacity) {
+            mPoolCapacity = capacity;
+            mPoolSizedTypes.clear();
+            setItemViewCacheSize(Math.max(DEFAULT_VIEW_CACHE_SIZE,
+                    spanCount * mPoolLookaheadLines));
+        }
+
+        RecycledViewPool pool = getRecycledViewPool();
+        int childCount = getChildCount();
+        for (int i = 0; i < childCount; i++) {
+            int viewType = getChildViewHolder(getChildAt(i)).getItemViewType();
+            if (!mPoolSizedTypes.get(viewType)) {
+                mPoolSizedTypes.put(viewType, true);
+                if (pool instanceof SizedRecycledViewPool) {
+                    ((SizedRecycledViewPool) pool).ensureMaxRecycledViews(viewType, capacity);
+                } else {
+                    pool.setMaxRecycledViews(viewType, capacity);
+                }
+            }
+        }
+    }
+
     private void setSelectionOnLayout(int position) {
         RecyclerView.ViewHolder holder = findViewHolderForAdapterPosition(position);
 
@@ -556,14 +2012,42 @@ public class DpadAwareRecyclerView extends RecyclerView implements
 
         ViewTreeObserver obs = getViewTreeObserver();
         obs.addOnGlobalFocusChangeListener(this);
+
+        if (mSelectorCoordinator != null) {
+            mSelectorCoordinator.register(this);
+        }
     }
 
     @Override
     protected void onDetachedFromWindow() {
         super.onDetachedFromWindow();
 
+        mPrewarmGeneration++;
+        mPendingKeyDownTime = 0;
+        stopFrameMonitor();
+        endNavigationTrace();
+        finishJoystickScroll(false);
+
         ViewTreeObserver obs = getViewTreeObserver();
         obs.removeOnGlobalFocusChangeListener(this);
+
+        stopSelectors();
+        releaseSelectors();
+
+        if (mSelectorCoordinator != null) {
+            mSelectorCoordinator.unregister(this);
+        }
+    }
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+
+        if (visibility != VISIBLE) {
+            stopSelectors();
+        } else {
+            enforceSelectorsVisibility(isInTouchMode(), hasFocus());
+        }
     }
 
     @Override
@@ -578,6 +2062,14 @@ public class DpadAwareRecyclerView extends RecyclerView implements
     protected void onFocusChanged(boolean gainFocus, int direction, @Nullable Rect previouslyFocusedRect) {
         super.onFocusChanged(gainFocus, direction, previouslyFocusedRect);
 
+        if (mJoystickScrolling) {
+            // Focus is taken by this list itself while stick is deflected
+            if (!gainFocus && !hasFocus()) {
+                finishJoystickScroll(false);
+            }
+            return;
+        }
+
         if (gainFocus) {
             // We favor natural focus if we don't want to remember focus AND if previously focused
             // rectangle is NOT null. Usually latter condition holds true if simple requestFocus()
@@ -588,13 +2080,31 @@ public class DpadAwareRecyclerView extends RecyclerView implements
             boolean favorNaturalFocus = !mRememberLastFocus && previouslyFocusedRect != null;
             View lastFocusedView = mFocusArchivist.getLastFocus(this);
             if (favorNaturalFocus || lastFocusedView == null) {
-                requestNaturalFocus(direction, previouslyFocusedRect);
+                if (!requestAlignedFocus(direction, previouslyFocusedRect)) {
+                    requestNaturalFocus(direction, previouslyFocusedRect);
+                }
             } else {
                 lastFocusedView.requestFocus();
             }
         }
     }
 
+    /**
+     * Request focus on the item aligned with previously focused rect if aligned navigation is
+     * enabled and layout manager supports it.
+     *
+     * @param direction             direction in which focus is changing
+     * @param previouslyFocusedRect previously focus rectangle
+     * @return true if focus is requested
+     */
+    private boolean requestAlignedFocus(int direction, @Nullable Rect previouslyFocusedRect) {
+        LayoutManager layoutManager = getLayoutManager();
+        return mAlignedNavigationEnabled && previouslyFocusedRect != null
+                && layoutManager instanceof ExtGridLayoutManager
+                && ((ExtGridLayoutManager) layoutManager)
+                        .requestAlignedFocus(previouslyFocusedRect, direction);
+    }
+
     /**
      * Request natural focus.
      *
@@ -602,6 +2112,10 @@ public class DpadAwareRecyclerView extends RecyclerView implements
      * @param previouslyFocusedRect previously focus rectangle
      */
     private void requestNaturalFocus(int direction, Rect previouslyFocusedRect) {
+        if (mWorkCounters != null) {
+            mWorkCounters.onFocusSearch();
+        }
+
         FocusFinder ff = FocusFinder.getInstance();
         previouslyFocusedRect = previouslyFocusedRect == null
                 ? new Rect(0, 0, 0, 0) : previouslyFocusedRect;
@@ -612,53 +2126,504 @@ public class DpadAwareRecyclerView extends RecyclerView implements
         }
     }
 
-    @Override
-    public void requestChildFocus(View child, @NonNull View focused) {
-        super.requestChildFocus(child, focused);
-
-        requestChildFocusInner(child, focused);
-        fireOnItemFocusedEvent(child);
+    @Override
+    public void requestChildFocus(View child, @NonNull View focused) {
+        boolean traced = NavigationTrace.beginSection(TRACE_REQUEST_CHILD_FOCUS);
+        try {
+            dispatchChildFocus(child, focused);
+        } finally {
+            NavigationTrace.endSection(traced);
+        }
+    }
+
+    private void dispatchChildFocus(View child, @NonNull View focused) {
+        super.requestChildFocus(child, focused);
+
+        rememberSelectedItemKey(child);
+        notifyPagedAdapter(child);
+
+        requestChildFocusInner(child, focused);
+        fireOnItemFocusedEvent(child);
+    }
+
+    @Override
+    public boolean requestChildRectangleOnScreen(View child, Rect rect, boolean immediate) {
+        // ExtGridLayoutManager scrolls smoothly only if it's not asked to scroll immediately
+        boolean smooth = mSmoothScrolling && getQualityTier() < QUALITY_TIER_NO_SMOOTH_SCROLL;
+        return super.requestChildRectangleOnScreen(child, rect, immediate || !smooth);
+    }
+
+    @Override
+    public void onScrollStateChanged(int state) {
+        super.onScrollStateChanged(state);
+
+        if (state == SCROLL_STATE_IDLE) {
+            View focusedChild = getFocusedChild();
+            DpadAwareRecyclerView hosted = mSelectorHostEnabled
+                    ? findHostedList(findFocus()) : null;
+            if (hosted != null) {
+                // Nested list waits for this host to stop scrolling before moving selector
+                View hostedFocusedChild = hosted.getFocusedChild();
+                if (hostedFocusedChild != null) {
+                    hosted.requestChildFocusInner(hostedFocusedChild, hosted.findFocus());
+                }
+            } else if (focusedChild != null) {
+                requestChildFocusInner(focusedChild, focusedChild);
+            }
+            settleNavigationState();
+        }
+    }
+
+    @Override
+    public void onChildAttachedToWindow(View child) {
+        super.onChildAttachedToWindow(child);
+
+        if (mChoiceMode != CHOICE_MODE_NONE) {
+            child.setActivated(mCheckedPositions.contains(getChildAdapterPosition(child)));
+        }
+
+        if (!mDeferredBindingEnabled) {
+            return;
+        }
+
+        ViewHolder holder = getChildViewHolder(child);
+        if (mNavigationState == NAVIGATION_STATE_FAST) {
+            setLightweight(holder, true);
+            mLightweightPending = true;
+        } else if (isLightweight(holder)) {
+            // Lightweight holder came back from cache without rebinding
+            removeCallbacks(mFullBindRunnable);
+            post(mFullBindRunnable);
+        }
+    }
+
+    @Override
+    public void onChildDetachedFromWindow(View child) {
+        super.onChildDetachedFromWindow(child);
+
+        // Detached view may come back bound to another item
+        if (mNavigationEvent.mView == child) {
+            mNavigationEvent.clear();
+        }
+    }
+
+    /**
+     * Schedules {@link #refreshCheckedState()} after next layout. Adapter positions of attached
+     * children are not known until pending adapter updates are laid out.
+     */
+    private void invalidateCheckedState() {
+        if (mChoiceMode != CHOICE_MODE_NONE) {
+            mCheckedStateDirty = true;
+        }
+    }
+
+    /**
+     * Updates activated state of attached children. Children attached later are updated in
+     * {@link #onChildAttachedToWindow(View)}.
+     */
+    private void refreshCheckedState() {
+        int childCount = getChildCount();
+        for (int i = 0; i < childCount; i++) {
+            View child = getChildAt(i);
+            child.setActivated(mCheckedPositions.contains(getChildAdapterPosition(child)));
+        }
+    }
+
+    private void notifyPagedAdapter(View child) {
+        Adapter adapter = getAdapter();
+        if (adapter instanceof PagedAdapter) {
+            int position = getChildAdapterPosition(child);
+            if (position != NO_POSITION) {
+                ((PagedAdapter) adapter).onNavigated(position);
+            }
+        }
+    }
+
+    private void rememberSelectedItemKey(View child) {
+        if (mItemKeyProvider == null) {
+            return;
+        }
+
+        int position = getChildAdapterPosition(child);
+        if (position == NO_POSITION) {
+            return;
+        }
+
+        if (mItemKeyLookupPosition != NO_POSITION) {
+            if (position == mItemKeyLookupPosition) {
+                // Pending selection is restored, its key is still being looked up
+                return;
+            }
+            // User moved selection, the lookup result no longer applies
+            cancelItemKeyLookup();
+        }
+        mSelectedItemKey = mItemKeyProvider.getItemKey(position);
+    }
+
+    private void cancelItemKeyLookup() {
+        mItemKeyGeneration++;
+        mItemKeyLookupPosition = NO_POSITION;
+    }
+
+    /**
+     * Looks up new position of selected item on background thread and selects it if it moved.
+     */
+    private void findSelectedItemByKey() {
+        cancelItemKeyLookup();
+        final int generation = mItemKeyGeneration;
+        final ItemKeyProvider provider = mItemKeyProvider;
+        final Object key = mSelectedItemKey;
+        if (provider == null || key == null) {
+            return;
+        }
+
+        final int startPosition = mPendingSelectionInt;
+        mItemKeyLookupPosition = startPosition;
+
+        final Handler mainHandler = getMainHandler();
+        mItemKeyExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final int position = provider.getItemPosition(key);
+
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation != mItemKeyGeneration) {
+                            return;
+                        }
+
+                        mItemKeyLookupPosition = NO_POSITION;
+                        if (position != NO_POSITION && position != startPosition
+                                && isSelectionAt(startPosition)) {
+                            setSelection(position);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * @return true if item at passed position is selected or is about to be selected on next
+     * layout.
+     */
+    private boolean isSelectionAt(int position) {
+        int selectedPos = getSelectedItemPosition();
+        return selectedPos == NO_POSITION
+                ? mPendingSelectionInt == position : selectedPos == position;
+    }
+
+    private void updateNavigationState(@NonNull KeyEvent event) {
+        if (!isNavigationEvent(event)) {
+            return;
+        }
+
+        switch (event.getAction()) {
+            case KeyEvent.ACTION_DOWN:
+                mNavigationKeyHeld = true;
+                setNavigationState(event.getRepeatCount() > 0
+                        ? NAVIGATION_STATE_FAST : NAVIGATION_STATE_STEPPING);
+                onNavigationKeyDown(event);
+                break;
+            case KeyEvent.ACTION_UP:
+                mNavigationKeyHeld = false;
+                settleNavigationState();
+                break;
+        }
+    }
+
+    private void settleNavigationState() {
+        if (!mNavigationKeyHeld && !mJoystickScrolling && getScrollState() == SCROLL_STATE_IDLE) {
+            setNavigationState(NAVIGATION_STATE_IDLE);
+        }
+    }
+
+    private void setNavigationState(@NavigationState int state) {
+        if (mNavigationState == state) {
+            return;
+        }
+
+        mNavigationState = state;
+
+        if (state == NAVIGATION_STATE_IDLE && mLightweightPending) {
+            if (isComputingLayout()) {
+                post(mFullBindRunnable);
+            } else {
+                requestFullBind();
+            }
+        }
+
+        if (mOnNavigationStateChangedListener != null) {
+            mOnNavigationStateChangedListener.onNavigationStateChanged(this, state);
+        }
+    }
+
+    private void onNavigationKeyDown(@NonNull KeyEvent event) {
+        if (mWorkCounters != null) {
+            mWorkCounters.onStep();
+        }
+
+        if (mNavigationStats != null) {
+            mPendingKeyDownTime = event.getEventTime();
+        }
+
+        if (mNavigationStats != null || mQualityGovernor != null) {
+            startFrameMonitor();
+        }
+
+        // Previous press is overtaken, so its section ends here
+        endNavigationTrace();
+        mNavigationTraceCookie = NavigationTrace.beginAsyncSection(
+                NavigationTrace.NAVIGATION_SECTION);
+    }
+
+    private void onSelectionLanded() {
+        if (mNavigationStats != null && mPendingKeyDownTime != 0) {
+            mNavigationStats.getSelectionLatency().record(
+                    SystemClock.uptimeMillis() - mPendingKeyDownTime);
+            mPendingKeyDownTime = 0;
+        }
+
+        endNavigationTrace();
+    }
+
+    private void endNavigationTrace() {
+        if (mNavigationTraceCookie != 0) {
+            NavigationTrace.endAsyncSection(NavigationTrace.NAVIGATION_SECTION,
+                    mNavigationTraceCookie);
+            mNavigationTraceCookie = 0;
+        }
+    }
+
+    private void startFrameMonitor() {
+        if (!mFrameCallbackPosted) {
+            mFrameCallbackPosted = true;
+            mLastFrameTimeNanos = 0;
+            Choreographer.getInstance().postFrameCallback(mFrameCallback);
+        }
+    }
+
+    private void stopFrameMonitor() {
+        if (mFrameCallbackPosted) {
+            mFrameCallbackPosted = false;
+            Choreographer.getInstance().removeFrameCallback(mFrameCallback);
+        }
+    }
+
+    /**
+     * Accounts duration of previous frame in stats and adaptive quality and keeps listening
+     * to frames until navigation, scrolling and selector transition are all finished.
+     */
+    private void onFrame(long frameTimeNanos) {
+        mFrameCallbackPosted = false;
+        if (mNavigationStats == null && mQualityGovernor == null) {
+            return;
+        }
+
+        if (mLastFrameTimeNanos != 0) {
+            long durationNanos = frameTimeNanos - mLastFrameTimeNanos;
+            if (mNavigationStats != null) {
+                mNavigationStats.getFrameDurations().record(durationNanos / 1000000);
+            }
+            if (mQualityGovernor != null && mQualityGovernor.onFrame(durationNanos)) {
+                dispatchQualityTierChanged();
+            }
+        }
+        mLastFrameTimeNanos = frameTimeNanos;
+
+        boolean active = mNavigationState != NAVIGATION_STATE_IDLE
+                || getScrollState() != SCROLL_STATE_IDLE
+                || isSelectorAnimating();
+        if (active) {
+            mFrameCallbackPosted = true;
+            Choreographer.getInstance().postFrameCallback(mFrameCallback);
+        }
+    }
+
+    @Override
+    public void setRecyclerListener(@Nullable RecyclerListener listener) {
+        // Internal listener stays installed and delegates to this one
+        mRecyclerListener = listener;
+    }
+
+    private static boolean isLightweight(@NonNull ViewHolder holder) {
+        return holder.itemView.getTag(R.id.darv_lightweight_bind) != null;
+    }
+
+    private static void setLightweight(@NonNull ViewHolder holder, boolean lightweight) {
+        // Avoid creating view's tag storage just to clear a flag
+        if (lightweight || isLightweight(holder)) {
+            holder.itemView.setTag(R.id.darv_lightweight_bind, lightweight ? Boolean.TRUE : null);
+        }
+    }
+
+    /**
+     * Notifies visible lightweight items with {@link #PAYLOAD_FULL_BIND} payload. Each run
+     * of consecutive positions is notified at once.
+     */
+    private void requestFullBind() {
+        Adapter adapter = getAdapter();
+        if (adapter == null || mNavigationState != NAVIGATION_STATE_IDLE) {
+            return;
+        }
+
+        int childCount = getChildCount();
+        if (mFullBindPositions.length < childCount) {
+            mFullBindPositions = new int[childCount];
+        }
+
+        int count = 0;
+        for (int i = 0; i < childCount; i++) {
+            ViewHolder holder = getChildViewHolder(getChildAt(i));
+            int position = holder.getAdapterPosition();
+            if (position != NO_POSITION && isLightweight(holder)) {
+                setLightweight(holder, false);
+                mFullBindPositions[count++] = position;
+            }
+        }
+        mLightweightPending = false;
+
+        Arrays.sort(mFullBindPositions, 0, count);
+
+        int runStart = 0;
+        for (int i = 1; i <= count; i++) {
+            if (i == count || mFullBindPositions[i] != mFullBindPositions[i - 1] + 1) {
+                adapter.notifyItemRangeChanged(mFullBindPositions[runStart], i - runStart,
+                        PAYLOAD_FULL_BIND);
+                runStart = i;
+            }
+        }
+    }
+
+    private void requestChildFocusInner(View child, @NonNull View focused) {
+        boolean traced = NavigationTrace.beginSection(TRACE_REQUEST_CHILD_FOCUS_INNER);
+        try {
+            moveSelectorsToFocus(child, focused);
+        } finally {
+            NavigationTrace.endSection(traced);
+        }
     }
 
-    @Override
-    public void onScrollStateChanged(int state) {
-        super.onScrollStateChanged(state);
+    private void moveSelectorsToFocus(View child, @NonNull View focused) {
+        if (mSelectorHostEnabled && findHostedList(focused) != null) {
+            // Nested list moves selector of this host itself
+            mFocusArchivist.archiveFocus(this, child);
+            return;
+        }
 
-        if (state == SCROLL_STATE_IDLE) {
-            View focusedChild = getFocusedChild();
-            requestChildFocusInner(focusedChild, focusedChild);
+        // Selectors are drawn either by this list or by its host
+        DpadAwareRecyclerView host = findSelectorHost();
+        DpadAwareRecyclerView drawer = host != null ? host : this;
+
+        if (!drawer.mSelectorsPrepared && drawer.hasSelectors()) {
+            drawer.prepareSelectors();
         }
-    }
 
-    private void requestChildFocusInner(View child, @NonNull View focused) {
         // Try to find first non-null selector to take it as an anchor.
         Drawable refSelector = null;
-        for (Drawable selector : mSelectorDrawables) {
+        for (Drawable selector : drawer.mSelectorDrawables) {
             if (selector != null) {
                 refSelector = selector;
                 break;
             }
         }
 
-        int scrollState = getScrollState();
+        boolean idle = getScrollState() == SCROLL_STATE_IDLE
+                && (host == null || host.getScrollState() == SCROLL_STATE_IDLE);
 
-        if (refSelector != null && scrollState == SCROLL_STATE_IDLE) {
-            mSelectorSourceRect.set(refSelector.getBounds());
+        if (refSelector != null && idle) {
+            drawer.mSelectorSourceRect.set(refSelector.getBounds());
 
             // Focused cannot be null
-            focused.getHitRect(mSelectorDestRect);
+            drawer.getSelectorRect(focused, drawer.mSelectorDestRect);
 
             mReusableSelectListener.mToSelect = child;
             mReusableSelectListener.mToDeselect = mFocusArchivist.getLastFocus(this);
 
-            animateSelectorChange(mReusableSelectListener);
+            drawer.animateSelectorChange(mReusableSelectListener);
 
             mFocusArchivist.archiveFocus(this, child);
+        } else if (idle) {
+            // Without selectors selection lands as soon as scrolling is over
+            onSelectionLanded();
+        }
+    }
+
+    /**
+     * Gets bounds of view in this list's coordinates. View is either a child of this list or,
+     * for selector host, a descendant of nested list.
+     */
+    private void getSelectorRect(@NonNull View view, @NonNull Rect outRect) {
+        if (view.getParent() == this) {
+            view.getHitRect(outRect);
+        } else {
+            outRect.set(0, 0, view.getWidth(), view.getHeight());
+            offsetDescendantRectToMyCoords(view, outRect);
+        }
+    }
+
+    /**
+     * @return closest ancestor which draws selectors of this list, null if there is none
+     */
+    @Nullable
+    private DpadAwareRecyclerView findSelectorHost() {
+        ViewParent parent = getParent();
+        while (parent != null) {
+            if (parent instanceof DpadAwareRecyclerView
+                    && ((DpadAwareRecyclerView) parent).mSelectorHostEnabled) {
+                return (DpadAwareRecyclerView) parent;
+            }
+            parent = parent.getParent();
+        }
+
+        return null;
+    }
+
+    /**
+     * @return nested list between passed descendant and this list which is the closest to
+     * this list, null if descendant is not inside any nested list
+     */
+    @Nullable
+    private DpadAwareRecyclerView findHostedList(@Nullable View descendant) {
+        if (descendant == null) {
+            return null;
         }
+
+        DpadAwareRecyclerView hosted = null;
+        ViewParent parent = descendant.getParent();
+        while (parent != null && parent != this) {
+            if (parent instanceof DpadAwareRecyclerView) {
+                hosted = (DpadAwareRecyclerView) parent;
+            }
+            parent = parent.getParent();
+        }
+
+        return parent == this ? hosted : null;
+    }
+
+    /**
+     * @return true if selector transition of this list or of its host is running, either
+     * animator or coordinated one
+     */
+    private boolean isSelectorAnimating() {
+        DpadAwareRecyclerView host = findSelectorHost();
+        DpadAwareRecyclerView drawer = host != null ? host : this;
+        return drawer.mTransitionListener != null
+                || (drawer.mSelectorAnimator != null && drawer.mSelectorAnimator.isRunning());
     }
 
     @Override
     public void onDraw(@NonNull Canvas canvas) {
+        boolean traced = NavigationTrace.beginSection(TRACE_ON_DRAW);
+        try {
+            onDrawInner(canvas);
+        } finally {
+            NavigationTrace.endSection(traced);
+        }
+    }
+
+    private void onDrawInner(@NonNull Canvas canvas) {
         drawSelectorIfVisible(BACKGROUND, canvas);
 
         super.onDraw(canvas);
@@ -670,7 +2635,7 @@ public class DpadAwareRecyclerView extends RecyclerView implements
         enforceSelectorIndexBounds(index);
 
         Drawable selector = mSelectorDrawables[index];
-        if (selector != null && selector.isVisible()) {
+        if (mSelectorsPrepared && selector != null && selector.isVisible()) {
             selector.draw(canvas);
         }
     }
@@ -678,34 +2643,183 @@ public class DpadAwareRecyclerView extends RecyclerView implements
     /**
      * Animates selector when changes happen.
      */
-    private void animateSelectorChange(Animator.AnimatorListener listener) {
-        if (mSelectorAnimator != null) {
-            mSelectorAnimator.cancel();
+    private void animateSelectorChange(@NonNull SelectAnimatorListener listener) {
+        boolean traced = NavigationTrace.beginSection(TRACE_ANIMATE_SELECTOR_CHANGE);
+        try {
+            animateSelectorChangeInner(listener);
+        } finally {
+            NavigationTrace.endSection(traced);
         }
+    }
 
-        mSelectorAnimator = new AnimatorSet();
-
-        for (int i = 0; i < SELECTOR_COUNT; i++) {
-            mSelectorAnimator.playTogether(mSelectorAnimators[i]);
+    private void animateSelectorChangeInner(@NonNull SelectAnimatorListener listener) {
+        if (mSelectorCoordinator != null) {
+            mSelectorCoordinator.takeOverSelector(this, mSelectorSourceRect);
         }
 
-        mSelectorAnimator.setInterpolator(mTransitionInterpolator);
-        mSelectorAnimator.addListener(listener);
+        if (mSelectorAnimator != null) {
+            mSelectorAnimator.cancel();
+        }
+        finishSelectorTransition(true);
 
+        // No point in animating what cannot be seen
         int duration = 0;
-        if (mSelectorVelocity > 0) {
+        int velocity = getEffectiveSelectorVelocity();
+        if (velocity > 0 && getWindowVisibility() == VISIBLE) {
             int dx = mSelectorDestRect.centerX() - mSelectorSourceRect.centerX();
             int dy = mSelectorDestRect.centerY() - mSelectorSourceRect.centerY();
-            duration = computeTravelDuration(dx, dy, mSelectorVelocity);
+            duration = computeTravelDuration(dx, dy, velocity);
+        }
+
+        if (mSelectorCoordinator != null) {
+            startSelectorTransition(listener, duration);
+        } else {
+            mSelectorAnimator = new AnimatorSet();
+
+            for (int i = 0; i < SELECTOR_COUNT; i++) {
+                if (mSelectorAnimators[i] != null) {
+                    mSelectorAnimator.playTogether(mSelectorAnimators[i]);
+                }
+            }
+
+            mSelectorAnimator.setInterpolator(mTransitionInterpolator);
+            mSelectorAnimator.addListener(listener);
+            mSelectorAnimatorListener = listener;
+            mSelectorAnimator.setDuration(duration);
+            mSelectorAnimator.start();
+        }
+
+        if (mWorkCounters != null) {
+            mWorkCounters.onSelectorAnimation();
+        }
+    }
+
+    /**
+     * Starts selector transition driven by {@link SelectorCoordinator}'s frame callback.
+     */
+    private void startSelectorTransition(@NonNull SelectAnimatorListener listener,
+            int duration) {
+        mTransitionListener = listener;
+        mTransitionDuration = duration;
+        // Clock starts at the first frame just like animator's one
+        mTransitionStartNanos = 0;
+
+        listener.onTransitionStart();
+
+        if (duration <= 0) {
+            finishSelectorTransition(false);
+        } else if (mSelectorCoordinator != null) {
+            mSelectorCoordinator.scheduleFrame();
+        }
+    }
+
+    /**
+     * Advances coordinated selector transition.
+     *
+     * @param frameTimeNanos frame time
+     * @return true if transition is still running
+     */
+    boolean onSelectorTransitionFrame(long frameTimeNanos) {
+        if (mTransitionListener == null) {
+            return false;
+        }
+
+        if (mTransitionStartNanos == 0) {
+            mTransitionStartNanos = frameTimeNanos;
+        }
+
+        float fraction = (frameTimeNanos - mTransitionStartNanos) / 1000000.f
+                / mTransitionDuration;
+        if (fraction >= 1.f) {
+            finishSelectorTransition(false);
+            return false;
+        }
+
+        setSelectorsBounds(fraction);
+        return true;
+    }
+
+    /**
+     * Finishes coordinated selector transition if there is one.
+     *
+     * @param cancel if true, selectors are left where they are, otherwise they jump to
+     *               destination
+     */
+    private void finishSelectorTransition(boolean cancel) {
+        SelectAnimatorListener listener = mTransitionListener;
+        if (listener == null) {
+            return;
+        }
+
+        mTransitionListener = null;
+
+        if (cancel) {
+            listener.onTransitionCancel();
+        } else {
+            setSelectorsBounds(1.f);
+            listener.onTransitionEnd();
+        }
+    }
+
+    private void setSelectorsBounds(float fraction) {
+        if (mSelectorEvaluator == null) {
+            return;
+        }
+
+        Rect bounds = mSelectorEvaluator.evaluate(
+                mTransitionInterpolator.getInterpolation(fraction),
+                mSelectorSourceRect, mSelectorDestRect);
+        for (Drawable selector : mSelectorDrawables) {
+            if (selector != null) {
+                selector.setBounds(bounds);
+            }
+        }
+    }
+
+    /**
+     * Gets current bounds of selector, e.g. for {@link SelectorCoordinator} to start
+     * transition of other list from there.
+     *
+     * @param outRect rect to receive bounds in this list's coordinates
+     * @return true if there is a placed selector
+     */
+    boolean getSelectorBounds(@NonNull Rect outRect) {
+        if (!mSelectorsPrepared) {
+            return false;
+        }
+
+        for (Drawable selector : mSelectorDrawables) {
+            if (selector != null) {
+                outRect.set(selector.getBounds());
+                return !outRect.isEmpty();
+            }
         }
 
-        mSelectorAnimator.setDuration(duration);
-        mSelectorAnimator.start();
+        return false;
+    }
+
+    /**
+     * @return selector velocity adjusted to quality tier, 0 if selector must move instantly
+     */
+    private int getEffectiveSelectorVelocity() {
+        switch (getQualityTier()) {
+            case QUALITY_TIER_FULL:
+                return mSelectorVelocity;
+            case QUALITY_TIER_FAST_SELECTOR:
+                return mSelectorVelocity * 2;
+            default:
+                return 0;
+        }
     }
 
-    private Animator createSelectorAnimator(@Nullable Drawable selector) {
+    private Animator createSelectorAnimator(@NonNull Drawable selector) {
+        if (mSelectorEvaluator == null) {
+            // Selectors are animated together on the main thread so one evaluator is enough
+            mSelectorEvaluator = new RectEvaluator();
+        }
+
         return ObjectAnimator.ofObject(
-                selector, BOUNDS_PROP, new RectEvaluator(),
+                selector, BOUNDS_PROP, mSelectorEvaluator,
                 mSelectorSourceRect, mSelectorDestRect);
     }
 
@@ -714,7 +2828,11 @@ public class DpadAwareRecyclerView extends RecyclerView implements
     }
 
     private void enforceSelectorsVisibility(boolean isInTouchMode, boolean hasFocus) {
-        boolean visible = !isInTouchMode && hasFocus;
+        if (!mSelectorsPrepared) {
+            return;
+        }
+
+        boolean visible = !isInTouchMode && hasFocus && getWindowVisibility() == VISIBLE;
 
         for (Drawable selector : mSelectorDrawables) {
             if (selector != null) {
@@ -732,12 +2850,6 @@ public class DpadAwareRecyclerView extends RecyclerView implements
         }
     }
 
-    private void setSelectorCallback(@Nullable Drawable selector) {
-        if (selector != null) {
-            selector.setCallback(mSelectorCallback);
-        }
-    }
-
     private void childSetSelected(@NonNull View child, boolean selected) {
         child.setSelected(selected);
 
@@ -748,21 +2860,236 @@ public class DpadAwareRecyclerView extends RecyclerView implements
 
     @Override
     public boolean dispatchKeyEvent(@NonNull KeyEvent event) {
+        boolean traced = NavigationTrace.beginSection(TRACE_DISPATCH_KEY_EVENT);
+        try {
+            return dispatchKeyEventInner(event);
+        } finally {
+            NavigationTrace.endSection(traced);
+        }
+    }
+
+    private boolean dispatchKeyEventInner(@NonNull KeyEvent event) {
+        if (mNavigationRecorder != null) {
+            Adapter adapter = getAdapter();
+            mNavigationRecorder.record(event, getSelectedItemPosition(),
+                    adapter != null ? adapter.getItemCount() : 0);
+        }
+
+        if (dispatchSectionKeyEvent(event)) {
+            return true;
+        }
+
+        if (mJoystickScrolling && isNavigationEvent(event)) {
+            finishJoystickScroll(true);
+        }
+
+        updateNavigationState(event);
+
         boolean consumed = super.dispatchKeyEvent(event);
 
         View focusedChild = getFocusedChild();
 
         if (focusedChild != null
-                && mOnItemClickListener != null
                 && event.getAction() == KeyEvent.ACTION_DOWN
                 && isClickEvent(event)
                 && event.getRepeatCount() == 0) {
+            toggleItemChecked(focusedChild);
             fireOnItemClickEvent(focusedChild);
         }
 
         return consumed;
     }
 
+    @Override
+    public boolean dispatchGenericMotionEvent(MotionEvent event) {
+        // Focused descendants, e.g. nested rows, handle their axis first
+        return super.dispatchGenericMotionEvent(event) || onJoystickEvent(event);
+    }
+
+    /**
+     * Maps deflection of joystick along orientation axis to scroll velocity.
+     *
+     * @return true if event is consumed
+     */
+    private boolean onJoystickEvent(@NonNull MotionEvent event) {
+        LayoutManager layoutManager = getLayoutManager();
+        if ((event.getSource() & InputDevice.SOURCE_JOYSTICK) != InputDevice.SOURCE_JOYSTICK
+                || event.getActionMasked() != MotionEvent.ACTION_MOVE
+                || layoutManager == null) {
+            return false;
+        }
+
+        int axis = layoutManager.canScrollVertically() ? MotionEvent.AXIS_Y : MotionEvent.AXIS_X;
+
+        float deadZone = mJoystickDeadZone;
+        InputDevice device = event.getDevice();
+        InputDevice.MotionRange range = device != null
+                ? device.getMotionRange(axis, event.getSource()) : null;
+        if (range != null) {
+            deadZone = Math.min(Math.max(deadZone, range.getFlat()), 0.99f);
+        }
+
+        float velocity = NavigationMath.computeJoystickVelocity(event.getAxisValue(axis),
+                deadZone, mJoystickCurve, mJoystickMaxVelocity);
+
+        if (velocity != 0) {
+            startJoystickScroll();
+            mJoystickVelocity = velocity;
+            return true;
+        }
+
+        if (mJoystickScrolling) {
+            finishJoystickScroll(true);
+            return true;
+        }
+
+        return false;
+    }
+
+    private void startJoystickScroll() {
+        if (mJoystickScrolling) {
+            return;
+        }
+
+        View focusedChild = getFocusedChild();
+        if (focusedChild != null) {
+            mJoystickAnchorX = (focusedChild.getLeft() + focusedChild.getRight()) / 2;
+            mJoystickAnchorY = (focusedChild.getTop() + focusedChild.getBottom()) / 2;
+        } else {
+            mJoystickAnchorX = getWidth() / 2;
+            mJoystickAnchorY = getHeight() / 2;
+        }
+
+        mJoystickScrolling = true;
+        mJoystickScrollRemainder = 0;
+        mJoystickLastFrameNanos = 0;
+        setNavigationState(NAVIGATION_STATE_FAST);
+
+        // Items scroll under the selector while this list holds focus, so focus doesn't jump
+        // from item to item and isn't lost when focused item is recycled
+        if (focusedChild != null) {
+            requestFocus();
+        }
+
+        if (mNavigationStats != null || mQualityGovernor != null) {
+            startFrameMonitor();
+        }
+
+        Choreographer.getInstance().postFrameCallback(mJoystickFrameCallback);
+    }
+
+    private void onJoystickFrame(long frameTimeNanos) {
+        LayoutManager layoutManager = getLayoutManager();
+        if (!mJoystickScrolling || layoutManager == null) {
+            return;
+        }
+
+        if (mJoystickLastFrameNanos != 0) {
+            float delta = mJoystickVelocity * (frameTimeNanos - mJoystickLastFrameNanos)
+                    / 1000000000f + mJoystickScrollRemainder;
+            int scroll = (int) delta;
+            mJoystickScrollRemainder = delta - scroll;
+
+            if (scroll != 0) {
+                if (layoutManager.canScrollVertically()) {
+                    scrollBy(0, scroll);
+                } else {
+                    scrollBy(scroll, 0);
+                }
+            }
+        }
+        mJoystickLastFrameNanos = frameTimeNanos;
+
+        Choreographer.getInstance().postFrameCallback(mJoystickFrameCallback);
+    }
+
+    /**
+     * Stops joystick scrolling.
+     *
+     * @param settleFocus if true, focus child nearest to where focused child was when stick
+     *                    was deflected
+     */
+    private void finishJoystickScroll(boolean settleFocus) {
+        if (!mJoystickScrolling) {
+            return;
+        }
+
+        mJoystickScrolling = false;
+        mJoystickVelocity = 0;
+        Choreographer.getInstance().removeFrameCallback(mJoystickFrameCallback);
+
+        if (settleFocus && isFocused()) {
+            View child = findChildNearest(mJoystickAnchorX, mJoystickAnchorY);
+            if (child != null) {
+                child.requestFocus();
+            }
+        }
+
+        settleNavigationState();
+    }
+
+    @Nullable
+    private View findChildNearest(int x, int y) {
+        View nearest = null;
+        long nearestDistance = Long.MAX_VALUE;
+        int childCount = getChildCount();
+        for (int i = 0; i < childCount; i++) {
+            View child = getChildAt(i);
+            long dx = (child.getLeft() + child.getRight()) / 2 - x;
+            long dy = (child.getTop() + child.getBottom()) / 2 - y;
+            long distance = dx * dx + dy * dy;
+            if (distance < nearestDistance) {
+                nearest = child;
+                nearestDistance = distance;
+            }
+        }
+        return nearest;
+    }
+
+    private void toggleItemChecked(@NonNull View child) {
+        int position = getChildAdapterPosition(child);
+        if (position == NO_POSITION) {
+            return;
+        }
+
+        if (mChoiceMode == CHOICE_MODE_MULTIPLE) {
+            setItemChecked(position, !isItemChecked(position));
+        } else if (mChoiceMode == CHOICE_MODE_SINGLE) {
+            // Like in ListView, clicking checked item in single mode keeps it checked
+            setItemChecked(position, true);
+        }
+    }
+
+    private boolean dispatchSectionKeyEvent(@NonNull KeyEvent event) {
+        int keyCode = event.getKeyCode();
+        if (keyCode == KeyEvent.KEYCODE_UNKNOWN) {
+            return false;
+        }
+
+        boolean next = keyCode == mNextSectionKeyCode;
+        if (!next && keyCode != mPreviousSectionKeyCode) {
+            return false;
+        }
+
+        if (event.getAction() == KeyEvent.ACTION_DOWN) {
+            return next ? jumpToNextSection() : jumpToPreviousSection();
+        }
+
+        return getAdapter() instanceof SectionProvider;
+    }
+
+    private boolean isNavigationEvent(@NonNull KeyEvent event) {
+        switch (event.getKeyCode()) {
+            case KeyEvent.KEYCODE_DPAD_UP:
+            case KeyEvent.KEYCODE_DPAD_DOWN:
+            case KeyEvent.KEYCODE_DPAD_LEFT:
+            case KeyEvent.KEYCODE_DPAD_RIGHT:
+                return true;
+            default:
+                return false;
+        }
+    }
+
     private boolean isClickEvent(@NonNull KeyEvent event) {
         int keyCode = event.getKeyCode();
         return keyCode == KeyEvent.KEYCODE_DPAD_CENTER || keyCode == KeyEvent.KEYCODE_ENTER;
@@ -772,11 +3099,20 @@ public class DpadAwareRecyclerView extends RecyclerView implements
     public void addView(@NonNull View child, int index, ViewGroup.LayoutParams params) {
         super.addView(child, index, params);
 
-        if (mOnItemClickListener != null) {
+        if (mOnItemClickListener != null || mItemClickListeners.length > 0) {
             child.setClickable(true);
         }
     }
 
+    @Override
+    public View focusSearch(View focused, int direction) {
+        if (mWorkCounters != null) {
+            mWorkCounters.onFocusSearch();
+        }
+
+        return super.focusSearch(focused, direction);
+    }
+
     @Override
     public void getFocusedRect(Rect r) {
         getDrawingRect(r);
@@ -786,33 +3122,141 @@ public class DpadAwareRecyclerView extends RecyclerView implements
     public void addFocusables(@NonNull ArrayList<View> views, int direction, int focusableMode) {
         // Allow focus on children only if focus is already in this view
         if (hasFocus()) {
-            super.addFocusables(views, direction, focusableMode);
+            View focusedChild = getFocusedChild();
+            if (mDirectionalFocusablesEnabled && focusedChild != null
+                    && isArrowDirection(direction)) {
+                addDirectionalFocusables(views, direction, focusableMode, focusedChild);
+            } else {
+                super.addFocusables(views, direction, focusableMode);
+            }
         } else if (isFocusable()) {
             views.add(this);
         }
     }
 
+    /**
+     * Adds focusables of focused child and of children in the nearest line beyond it.
+     */
+    private void addDirectionalFocusables(@NonNull ArrayList<View> views, int direction,
+            int focusableMode, @NonNull View focusedChild) {
+        // Focused child may have more focusables in this direction, e.g. if it's nested list
+        focusedChild.addFocusables(views, direction, focusableMode);
+
+        int childCount = getChildCount();
+
+        // Nearest line is where the closest child beyond focused one lies
+        int lineStart = Integer.MAX_VALUE;
+        int lineEnd = Integer.MAX_VALUE;
+        for (int i = 0; i < childCount; i++) {
+            View child = getChildAt(i);
+            int gap = computeGap(focusedChild, child, direction);
+            // Lines without focusables, e.g. headers, are passed through
+            if (child != focusedChild && gap >= 0 && gap < lineStart && child.hasFocusable()) {
+                lineStart = gap;
+                lineEnd = gap + computeSizeAlong(child, direction);
+            }
+        }
+
+        if (lineStart == Integer.MAX_VALUE) {
+            return;
+        }
+
+        for (int i = 0; i < childCount; i++) {
+            View child = getChildAt(i);
+            int gap = computeGap(focusedChild, child, direction);
+            if (child != focusedChild && gap >= lineStart && gap < lineEnd) {
+                child.addFocusables(views, direction, focusableMode);
+            }
+        }
+    }
+
+    /**
+     * @return distance from focused child's edge facing direction to the near edge of passed
+     * child, negative if child is not beyond focused one
+     */
+    private static int computeGap(@NonNull View focusedChild, @NonNull View child,
+            int direction) {
+        switch (direction) {
+            case FOCUS_LEFT:
+                return focusedChild.getLeft() - child.getRight();
+            case FOCUS_RIGHT:
+                return child.getLeft() - focusedChild.getRight();
+            case FOCUS_UP:
+                return focusedChild.getTop() - child.getBottom();
+            case FOCUS_DOWN:
+                return child.getTop() - focusedChild.getBottom();
+            default:
+                throw new IllegalArgumentException("Direction must be an arrow one");
+        }
+    }
+
+    private static boolean isArrowDirection(int direction) {
+        return direction == FOCUS_LEFT || direction == FOCUS_RIGHT
+                || direction == FOCUS_UP || direction == FOCUS_DOWN;
+    }
+
+    private static int computeSizeAlong(@NonNull View child, int direction) {
+        return direction == FOCUS_LEFT || direction == FOCUS_RIGHT
+                ? child.getWidth() : child.getHeight();
+    }
+
+    /**
+     * Resolves position and id of passed child unless they are resolved already.
+     */
+    @NonNull
+    private NavigationEvent obtainNavigationEvent(@NonNull View child) {
+        NavigationEvent event = mNavigationEvent;
+        if (event.mView != child) {
+            event.mPosition = getChildAdapterPosition(child);
+            event.mId = getChildItemId(child);
+            // Position is unknown until pending adapter updates are laid out, so resolve later
+            event.mView = event.mPosition != NO_POSITION ? child : null;
+        }
+        return event;
+    }
+
     private void fireOnItemClickEvent(View child) {
+        OnItemClickListener[] listeners = mItemClickListeners;
+        if (mOnItemClickListener == null && listeners.length == 0) {
+            return;
+        }
+
+        NavigationEvent event = obtainNavigationEvent(child);
         if (mOnItemClickListener != null) {
-            int position = getChildAdapterPosition(child);
-            long id = getChildItemId(child);
-            mOnItemClickListener.onItemClick(this, child, position, id);
+            mOnItemClickListener.onItemClick(this, child, event.mPosition, event.mId);
+        }
+        for (OnItemClickListener listener : listeners) {
+            listener.onItemClick(this, child, event.mPosition, event.mId);
         }
     }
 
     private void fireOnItemFocusedEvent(View child) {
+        OnItemSelectedListener[] listeners = mItemSelectedListeners;
+        if (mOnItemSelectedListener == null && listeners.length == 0) {
+            return;
+        }
+
+        NavigationEvent event = obtainNavigationEvent(child);
         if (mOnItemSelectedListener != null) {
-            int position = getChildAdapterPosition(child);
-            long id = getChildItemId(child);
-            mOnItemSelectedListener.onItemFocused(this, child, position, id);
+            mOnItemSelectedListener.onItemFocused(this, child, event.mPosition, event.mId);
+        }
+        for (OnItemSelectedListener listener : listeners) {
+            listener.onItemFocused(this, child, event.mPosition, event.mId);
         }
     }
 
     private void fireOnItemSelectedEvent(View child) {
+        OnItemSelectedListener[] listeners = mItemSelectedListeners;
+        if (mOnItemSelectedListener == null && listeners.length == 0) {
+            return;
+        }
+
+        NavigationEvent event = obtainNavigationEvent(child);
         if (mOnItemSelectedListener != null) {
-            int position = getChildAdapterPosition(child);
-            long id = getChildItemId(child);
-            mOnItemSelectedListener.onItemSelected(this, child, position, id);
+            mOnItemSelectedListener.onItemSelected(this, child, event.mPosition, event.mId);
+        }
+        for (OnItemSelectedListener listener : listeners) {
+            listener.onItemSelected(this, child, event.mPosition, event.mId);
         }
     }
 }
@@ -0,0 +1,974 @@
+/*
+ * Copyright 2016 Vsevolod Ganin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.ganin.darv;
+
+import android.content.Context;
+import android.graphics.Rect;
+import android.support.annotation.DimenRes;
+import android.support.annotation.FloatRange;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.widget.RecyclerView;
+import android.util.SparseBooleanArray;
+import android.view.FocusFinder;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewParent;
+
+/**
+ * Layout manager for electronic program guide (EPG): channel rows of programs laid out on
+ * shared time axis. Program's horizontal position and width are derived from its start and end
+ * times, all rows have the same height. Content is scrolled along both axes.
+ *
+ * <p>Adapter must implement {@link ScheduleProvider}. Programs of one channel must occupy
+ * consecutive adapter positions, channels must go in ascending order, programs of a channel
+ * must be sorted by start time and must not overlap. Visible programs are found with binary
+ * searches in per-channel interval index, so layout and focus search cost doesn't depend on
+ * size of schedule.
+ *
+ * <p>Features are:
+ * <ul>
+ * <li>Up and down navigation keeps time column: focus moves to the program which runs at
+ * remembered time in the nearest non-empty channel.</li>
+ * <li>Left and right navigation stays within channel.</li>
+ * <li>Selection camera offset along channel axis.</li>
+ * <li>Controlling 'arrow' views (any views really) for both axes.</li>
+ * </ul>
+ */
+public class EpgLayoutManager extends RecyclerView.LayoutManager {
+
+    /**
+     * Interface which adapter must implement to supply schedule.
+     */
+    public interface ScheduleProvider {
+        /**
+         * @return Number of channels (rows), including channels without programs.
+         */
+        int getChannelCount();
+
+        /**
+         * @param position Adapter position.
+         * @return Channel of program at passed position.
+         */
+        int getChannelForPosition(int position);
+
+        /**
+         * @param position Adapter position.
+         * @return Program's start time in milliseconds.
+         */
+        long getStartTime(int position);
+
+        /**
+         * @param position Adapter position.
+         * @return Program's end time in milliseconds.
+         */
+        long getEndTime(int position);
+    }
+
+    /**
+     * Builder for {@link EpgLayoutManager}.
+     */
+    public static final class Builder {
+
+        private final Context mCtx;
+
+        private int mRowHeight = 0;
+        private float mPixelsPerMinute = 0.f;
+        private long mOriginTime;
+        private boolean mOriginTimeSet = false;
+        private float mOffsetFraction = 0.f;
+        private boolean mOffsetEnabled = false;
+        @Nullable
+        private View mArrowTowardBegin;
+        @Nullable
+        private View mArrowTowardEnd;
+        @Nullable
+        private View mArrowTowardEarlier;
+        @Nullable
+        private View mArrowTowardLater;
+
+        public Builder(Context ctx) {
+            mCtx = ctx;
+        }
+
+        /**
+         * Set height of channel row in px.
+         *
+         * @param rowHeightPx Row height in px.
+         * @return This builder instance for chaining.
+         */
+        @NonNull
+        public Builder rowHeightPx(int rowHeightPx) {
+            mRowHeight = rowHeightPx;
+            return this;
+        }
+
+        /**
+         * Set height of channel row as dimension resource.
+         *
+         * @param rowHeightRes Row height resource.
+         * @return This builder instance for chaining.
+         */
+        @NonNull
+        public Builder rowHeightRes(@DimenRes int rowHeightRes) {
+            return rowHeightPx(mCtx.getResources().getDimensionPixelSize(rowHeightRes));
+        }
+
+        /**
+         * Set time scale.
+         *
+         * @param pixelsPerMinute Width of one minute in px.
+         * @return This builder instance for chaining.
+         */
+        @NonNull
+        public Builder pixelsPerMinute(float pixelsPerMinute) {
+            mPixelsPerMinute = pixelsPerMinute;
+            return this;
+        }
+
+        /**
+         * Set time which corresponds to horizontal coordinate 0. Default is the earliest start
+         * time of schedule.
+         *
+         * @param originTime Time in milliseconds.
+         * @return This builder instance for chaining.
+         */
+        @NonNull
+        public Builder originTime(long originTime) {
+            mOriginTime = originTime;
+            mOriginTimeSet = true;
+            return this;
+        }
+
+        /**
+         * Selection offset fraction along channel axis. E.g. if passed 0.5 selected channel
+         * will be centered vertically always.
+         *
+         * @param offsetFraction Offset fraction.
+         * @return This builder instance for chaining.
+         */
+        @NonNull
+        public Builder offsetFraction(@FloatRange(from = 0.f, to = 1.f) float offsetFraction) {
+            mOffsetFraction = offsetFraction;
+            mOffsetEnabled = true;
+            return this;
+        }
+
+        /**
+         * Set arrows along channel axis. {@code arrowTowardBegin} is hidden when user sees the
+         * first channel, {@code arrowTowardEnd} is hidden when user sees the last one.
+         *
+         * @param arrowTowardBegin View to hide when user sees the first channel.
+         * @param arrowTowardEnd View to hide when user sees the last channel.
+         * @return This builder instance for chaining.
+         */
+        @NonNull
+        public Builder channelArrows(@Nullable View arrowTowardBegin,
+                @Nullable View arrowTowardEnd) {
+            mArrowTowardBegin = arrowTowardBegin;
+            mArrowTowardEnd = arrowTowardEnd;
+            return this;
+        }
+
+        /**
+         * Set arrows along time axis. {@code arrowTowardEarlier} is hidden when user sees the
+         * beginning of schedule, {@code arrowTowardLater} is hidden when user sees its end.
+         *
+         * @param arrowTowardEarlier View to hide when user sees the beginning of schedule.
+         * @param arrowTowardLater View to hide when user sees the end of schedule.
+         * @return This builder instance for chaining.
+         */
+        @NonNull
+        public Builder timeArrows(@Nullable View arrowTowardEarlier,
+                @Nullable View arrowTowardLater) {
+            mArrowTowardEarlier = arrowTowardEarlier;
+            mArrowTowardLater = arrowTowardLater;
+            return this;
+        }
+
+        /**
+         * Build {@link EpgLayoutManager} instance.
+         *
+         * @return New {@link EpgLayoutManager} instance.
+         */
+        @NonNull
+        public EpgLayoutManager build() {
+            EpgLayoutManager lm = new EpgLayoutManager(mRowHeight, mPixelsPerMinute);
+            if (mOriginTimeSet) lm.setOriginTime(mOriginTime);
+            if (mOffsetEnabled) lm.setOffset(mOffsetFraction);
+            lm.setArrowTowardBegin(mArrowTowardBegin);
+            lm.setArrowTowardEnd(mArrowTowardEnd);
+            lm.setArrowTowardEarlier(mArrowTowardEarlier);
+            lm.setArrowTowardLater(mArrowTowardLater);
+            return lm;
+        }
+    }
+
+    private static final String TRACE_ON_LAYOUT_CHILDREN = "EpgLM#onLayoutChildren";
+    private static final String TRACE_ON_INTERCEPT_FOCUS_SEARCH = "EpgLM#onInterceptFocusSearch";
+    private static final String TRACE_REQUEST_CHILD_RECTANGLE =
+            "EpgLM#requestChildRectangleOnScreen";
+
+    private static final int NO_POSITION = RecyclerView.NO_POSITION;
+    private static final long NO_TIME = Long.MIN_VALUE;
+    private static final double MILLIS_PER_MINUTE = 60 * 1000;
+
+    private final ScheduleIndex mIndex = new ScheduleIndex();
+    private final NavigationArrows mChannelArrows = new NavigationArrows();
+    private final NavigationArrows mTimeArrows = new NavigationArrows();
+    private final SparseBooleanArray mAttachedPositions = new SparseBooleanArray();
+    private final Rect mTmpRect = new Rect();
+
+    private int mRowHeight;
+    private float mPixelsPerMinute;
+    private long mOriginTime;
+    private boolean mOriginTimeSet = false;
+    private float mOffsetFraction = 0.f;
+    private boolean mOffsetEnabled = false;
+
+    @Nullable
+    private RecyclerView mRecyclerView;
+    @Nullable
+    private ScheduleProvider mScheduleProvider;
+    private boolean mIndexDirty = true;
+
+    /* Scroll position in content coordinates */
+    private int mScrollX = 0;
+    private int mScrollY = 0;
+
+    private int mPendingScrollPosition = NO_POSITION;
+    private int mPendingFocusPosition = NO_POSITION;
+
+    /**
+     * Time which should be at the start of visible area once schedule is known. Horizontal
+     * coordinates can't be computed before that when origin time is derived from schedule.
+     */
+    private long mPendingScrollTime = NO_TIME;
+
+    /**
+     * Time column which is kept by up and down navigation.
+     */
+    private long mFocusTime = NO_TIME;
+
+    /**
+     * Position which is being focused by up or down navigation. Unlike any other focus change
+     * it doesn't move {@link #mFocusTime}.
+     */
+    private int mVerticalFocusTarget = NO_POSITION;
+
+    /**
+     * @param rowHeight Height of channel row in px.
+     * @param pixelsPerMinute Width of one minute in px.
+     */
+    public EpgLayoutManager(int rowHeight, float pixelsPerMinute) {
+        setRowHeight(rowHeight);
+        setPixelsPerMinute(pixelsPerMinute);
+    }
+
+    public void setRowHeight(int rowHeight) {
+        if (rowHeight < 1) {
+            throw new IllegalArgumentException("Row height must be > 0");
+        }
+
+        mRowHeight = rowHeight;
+        requestLayout();
+    }
+
+    public int getRowHeight() {
+        return mRowHeight;
+    }
+
+    /**
+     * Set time scale. Time at the start of visible area is kept.
+     *
+     * @param pixelsPerMinute Width of one minute in px.
+     */
+    public void setPixelsPerMinute(float pixelsPerMinute) {
+        if (!(pixelsPerMinute > 0)) {
+            throw new IllegalArgumentException("Pixels per minute must be > 0");
+        }
+
+        if (mPixelsPerMinute > 0) {
+            long visibleStartTime = getVisibleStartTime();
+            mPixelsPerMinute = pixelsPerMinute;
+            mScrollX = timeToX(visibleStartTime);
+        } else {
+            mPixelsPerMinute = pixelsPerMinute;
+        }
+        requestLayout();
+    }
+
+    public float getPixelsPerMinute() {
+        return mPixelsPerMinute;
+    }
+
+    /**
+     * Set time which corresponds to horizontal coordinate 0. Default is the earliest start
+     * time of schedule. Time at the start of visible area is kept.
+     *
+     * @param originTime Time in milliseconds.
+     */
+    public void setOriginTime(long originTime) {
+        long visibleStartTime = getVisibleStartTime();
+        mOriginTime = originTime;
+        mOriginTimeSet = true;
+        mScrollX = timeToX(visibleStartTime);
+        requestLayout();
+    }
+
+    /**
+     * @return Time which corresponds to horizontal coordinate 0.
+     */
+    public long getOriginTime() {
+        return mOriginTimeSet ? mOriginTime : mIndex.getMinTime();
+    }
+
+    public void disableOffset() {
+        mOffsetEnabled = false;
+    }
+
+    public void setOffset(@FloatRange(from = 0.f, to = 1.f) float offsetFraction) {
+        mOffsetFraction = offsetFraction;
+        mOffsetEnabled = true;
+    }
+
+    public float getOffsetFraction() {
+        return mOffsetFraction;
+    }
+
+    public boolean isOffsetEnabled() {
+        return mOffsetEnabled;
+    }
+
+    public void setArrowTowardBegin(View arrowTowardBegin) {
+        mChannelArrows.setTowardBegin(arrowTowardBegin);
+    }
+
+    public void setArrowTowardEnd(View arrowTowardEnd) {
+        mChannelArrows.setTowardEnd(arrowTowardEnd);
+    }
+
+    public void setArrowTowardEarlier(View arrowTowardEarlier) {
+        mTimeArrows.setTowardBegin(arrowTowardEarlier);
+    }
+
+    public void setArrowTowardLater(View arrowTowardLater) {
+        mTimeArrows.setTowardEnd(arrowTowardLater);
+    }
+
+    @Nullable
+    public View getArrowTowardBegin() {
+        return mChannelArrows.getTowardBegin();
+    }
+
+    @Nullable
+    public View getArrowTowardEnd() {
+        return mChannelArrows.getTowardEnd();
+    }
+
+    @Nullable
+    public View getArrowTowardEarlier() {
+        return mTimeArrows.getTowardBegin();
+    }
+
+    @Nullable
+    public View getArrowTowardLater() {
+        return mTimeArrows.getTowardEnd();
+    }
+
+    /**
+     * @return Time at the start of visible area.
+     */
+    public long getVisibleStartTime() {
+        return mPendingScrollTime != NO_TIME ? mPendingScrollTime : xToTime(mScrollX);
+    }
+
+    /**
+     * Scroll time axis so that passed time is at the start of visible area, e.g. to show
+     * programs which are on air now.
+     *
+     * @param time Time in milliseconds.
+     */
+    public void scrollToTime(long time) {
+        mPendingScrollTime = time;
+        if (!mIndexDirty) {
+            resolvePendingScrollTime();
+        }
+        requestLayout();
+    }
+
+    /**
+     * Find program of a channel which is the closest to passed time, i.e. the one on air at
+     * that time or the nearest one if there is a gap in schedule.
+     *
+     * @param channel Channel.
+     * @param time Time in milliseconds.
+     * @return Adapter position or {@link RecyclerView#NO_POSITION} if channel has no programs.
+     */
+    public int findProgramAt(int channel, long time) {
+        ensureIndex();
+        if (channel < 0 || channel >= mIndex.getRowCount()) {
+            return NO_POSITION;
+        }
+
+        return mIndex.findCellAt(channel, time);
+    }
+
+    @Override
+    public RecyclerView.LayoutParams generateDefaultLayoutParams() {
+        return new RecyclerView.LayoutParams(ViewGroup.LayoutParams.WRAP_CONTENT,
+                ViewGroup.LayoutParams.WRAP_CONTENT);
+    }
+
+    @Override
+    public void onAttachedToWindow(RecyclerView view) {
+        super.onAttachedToWindow(view);
+        mRecyclerView = view;
+        setScheduleProvider(view.getAdapter());
+    }
+
+    @Override
+    public void onDetachedFromWindow(RecyclerView view, RecyclerView.Recycler recycler) {
+        super.onDetachedFromWindow(view, recycler);
+        mRecyclerView = null;
+    }
+
+    @Override
+    public void onAdapterChanged(RecyclerView.Adapter oldAdapter,
+            RecyclerView.Adapter newAdapter) {
+        setScheduleProvider(newAdapter);
+        mFocusTime = NO_TIME;
+    }
+
+    private void setScheduleProvider(@Nullable RecyclerView.Adapter adapter) {
+        mScheduleProvider = adapter instanceof ScheduleProvider
+                ? (ScheduleProvider) adapter : null;
+        mIndexDirty = true;
+    }
+
+    @Override
+    public void onItemsChanged(RecyclerView recyclerView) {
+        mIndexDirty = true;
+    }
+
+    @Override
+    public void onItemsAdded(RecyclerView recyclerView, int positionStart, int itemCount) {
+        mIndexDirty = true;
+    }
+
+    @Override
+    public void onItemsRemoved(RecyclerView recyclerView, int positionStart, int itemCount) {
+        mIndexDirty = true;
+    }
+
+    @Override
+    public void onItemsUpdated(RecyclerView recyclerView, int positionStart, int itemCount) {
+        mIndexDirty = true;
+    }
+
+    @Override
+    public void onItemsMoved(RecyclerView recyclerView, int from, int to, int itemCount) {
+        mIndexDirty = true;
+    }
+
+    private void ensureIndex() {
+        if (!mIndexDirty) {
+            return;
+        }
+
+        mIndexDirty = false;
+
+        // Derived origin moves with schedule, keep visible start time instead of coordinate
+        if (!mOriginTimeSet && mPendingScrollTime == NO_TIME && mIndex.getCellCount() > 0) {
+            mPendingScrollTime = getVisibleStartTime();
+        }
+
+        int itemCount = getItemCount();
+        ScheduleProvider provider = mScheduleProvider;
+        if (itemCount == 0) {
+            mIndex.clear();
+            return;
+        }
+
+        if (provider == null) {
+            mIndex.clear();
+            throw new IllegalStateException("Adapter must implement "
+                    + "EpgLayoutManager.ScheduleProvider");
+        }
+
+        int rowCount = provider.getChannelCount();
+        int[] rowStarts = new int[rowCount + 1];
+        long[] startTimes = new long[itemCount];
+        long[] endTimes = new long[itemCount];
+
+        int row = 0;
+        for (int pos = 0; pos < itemCount; pos++) {
+            int channel = provider.getChannelForPosition(pos);
+            if (channel < row || channel >= rowCount) {
+                mIndex.clear();
+                throw new IllegalStateException("Programs must be grouped by channel in"
+                        + " ascending order, got channel " + channel + " at position " + pos);
+            }
+
+            // Channels without programs start where the next channel starts
+            while (row < channel) {
+                rowStarts[++row] = pos;
+            }
+
+            startTimes[pos] = provider.getStartTime(pos);
+            endTimes[pos] = provider.getEndTime(pos);
+        }
+
+        while (row < rowCount) {
+            rowStarts[++row] = itemCount;
+        }
+
+        mIndex.set(rowStarts, startTimes, endTimes);
+        resolvePendingScrollTime();
+    }
+
+    private void resolvePendingScrollTime() {
+        if (mPendingScrollTime != NO_TIME && mIndex.getCellCount() > 0) {
+            mScrollX = timeToX(mPendingScrollTime);
+            mPendingScrollTime = NO_TIME;
+        }
+    }
+
+    @Override
+    public void onLayoutChildren(RecyclerView.Recycler recycler, RecyclerView.State state) {
+        boolean traced = NavigationTrace.beginSection(TRACE_ON_LAYOUT_CHILDREN);
+        try {
+            ensureIndex();
+
+            if (mIndex.getCellCount() == 0) {
+                removeAndRecycleAllViews(recycler);
+                updateArrows();
+                return;
+            }
+
+            if (mPendingScrollPosition != NO_POSITION) {
+                if (mPendingScrollPosition < mIndex.getCellCount()) {
+                    mScrollX += computeScrollXToCell(mPendingScrollPosition);
+                    mScrollY += computeScrollYToRow(
+                            mIndex.getRowForPosition(mPendingScrollPosition));
+                }
+                mPendingScrollPosition = NO_POSITION;
+            }
+
+            mScrollX = clamp(mScrollX, getMinScrollX(), getMaxScrollX());
+            mScrollY = clamp(mScrollY, 0, getMaxScrollY());
+
+            detachAndScrapAttachedViews(recycler);
+            fill(recycler);
+
+            if (mPendingFocusPosition != NO_POSITION) {
+                View view = findViewByPosition(mPendingFocusPosition);
+                mPendingFocusPosition = NO_POSITION;
+
+                if (view != null) {
+                    view.requestFocus();
+                }
+            }
+
+            updateArrows();
+        } finally {
+            NavigationTrace.endSection(traced);
+        }
+    }
+
+    /**
+     * Recycle children which are out of visible area and add missing ones.
+     */
+    private void fill(RecyclerView.Recycler recycler) {
+        final int parentLeft = getPaddingLeft();
+        final int parentTop = getPaddingTop();
+        final int parentRight = getWidth() - getPaddingRight();
+        final int parentBottom = getHeight() - getPaddingBottom();
+
+        mAttachedPositions.clear();
+        for (int i = getChildCount() - 1; i >= 0; i--) {
+            View child = getChildAt(i);
+            if (getDecoratedRight(child) <= parentLeft || getDecoratedLeft(child) >= parentRight
+                    || getDecoratedBottom(child) <= parentTop
+                    || getDecoratedTop(child) >= parentBottom) {
+                removeAndRecycleViewAt(i, recycler);
+            } else {
+                mAttachedPositions.put(getPosition(child), true);
+            }
+        }
+
+        int rowCount = mIndex.getRowCount();
+        if (rowCount == 0 || parentRight <= parentLeft || parentBottom <= parentTop) {
+            return;
+        }
+
+        int firstRow = mScrollY / mRowHeight;
+        int lastRow = Math.min(rowCount - 1,
+                (mScrollY + parentBottom - parentTop - 1) / mRowHeight);
+        long fromTime = xToTime(mScrollX);
+        long toTime = xToTime(mScrollX + parentRight - parentLeft);
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            int rowEnd = mIndex.getRowEnd(row);
+            for (int pos = mIndex.findFirstEndingAfter(row, fromTime);
+                    pos < rowEnd && mIndex.getStartTime(pos) <= toTime; pos++) {
+                if (!mAttachedPositions.get(pos)) {
+                    addCell(recycler, pos, row, parentLeft, parentRight);
+                }
+            }
+        }
+    }
+
+    private void addCell(RecyclerView.Recycler recycler, int position, int row, int parentLeft,
+            int parentRight) {
+        final int left = parentLeft + timeToX(mIndex.getStartTime(position)) - mScrollX;
+        final int right = parentLeft + timeToX(mIndex.getEndTime(position)) - mScrollX;
+        final int top = getPaddingTop() + row * mRowHeight - mScrollY;
+        final int bottom = top + mRowHeight;
+
+        // Time bounds are rounded, so check the same pixel bounds fill() recycles by
+        if (right <= parentLeft || left >= parentRight) {
+            return;
+        }
+
+        View child = recycler.getViewForPosition(position);
+        addView(child);
+
+        RecyclerView.LayoutParams lp = (RecyclerView.LayoutParams) child.getLayoutParams();
+        calculateItemDecorationsForChild(child, mTmpRect);
+        int width = right - left - mTmpRect.left - mTmpRect.right
+                - lp.leftMargin - lp.rightMargin;
+        int height = bottom - top - mTmpRect.top - mTmpRect.bottom
+                - lp.topMargin - lp.bottomMargin;
+        child.measure(
+                View.MeasureSpec.makeMeasureSpec(Math.max(0, width), View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(Math.max(0, height), View.MeasureSpec.EXACTLY));
+
+        layoutDecorated(child, left + lp.leftMargin, top + lp.topMargin,
+                right - lp.rightMargin, bottom - lp.bottomMargin);
+    }
+
+    @Override
+    public boolean canScrollHorizontally() {
+        return true;
+    }
+
+    @Override
+    public boolean canScrollVertically() {
+        return true;
+    }
+
+    @Override
+    public int scrollHorizontallyBy(int dx, RecyclerView.Recycler recycler,
+            RecyclerView.State state) {
+        int scrollX = clamp(mScrollX + dx, getMinScrollX(), getMaxScrollX());
+        int consumed = scrollX - mScrollX;
+        if (consumed == 0 || mIndex.getCellCount() == 0) {
+            return 0;
+        }
+
+        mScrollX = scrollX;
+        offsetChildrenHorizontal(-consumed);
+        fill(recycler);
+        updateArrows();
+        return consumed;
+    }
+
+    @Override
+    public int scrollVerticallyBy(int dy, RecyclerView.Recycler recycler,
+            RecyclerView.State state) {
+        int scrollY = clamp(mScrollY + dy, 0, getMaxScrollY());
+        int consumed = scrollY - mScrollY;
+        if (consumed == 0 || mIndex.getCellCount() == 0) {
+            return 0;
+        }
+
+        mScrollY = scrollY;
+        offsetChildrenVertical(-consumed);
+        fill(recycler);
+        updateArrows();
+        return consumed;
+    }
+
+    @Override
+    public int computeHorizontalScrollOffset(RecyclerView.State state) {
+        return getChildCount() == 0 ? 0 : mScrollX - getMinScrollX();
+    }
+
+    @Override
+    public int computeHorizontalScrollExtent(RecyclerView.State state) {
+        return getChildCount() == 0 ? 0 : getWidth() - getPaddingLeft() - getPaddingRight();
+    }
+
+    @Override
+    public int computeHorizontalScrollRange(RecyclerView.State state) {
+        return getChildCount() == 0 ? 0 : timeToX(mIndex.getMaxTime()) - getMinScrollX();
+    }
+
+    @Override
+    public int computeVerticalScrollOffset(RecyclerView.State state) {
+        return getChildCount() == 0 ? 0 : mScrollY;
+    }
+
+    @Override
+    public int computeVerticalScrollExtent(RecyclerView.State state) {
+        return getChildCount() == 0 ? 0 : getHeight() - getPaddingTop() - getPaddingBottom();
+    }
+
+    @Override
+    public int computeVerticalScrollRange(RecyclerView.State state) {
+        return getChildCount() == 0 ? 0 : mIndex.getRowCount() * mRowHeight;
+    }
+
+    @Override
+    public void scrollToPosition(int position) {
+        mPendingScrollPosition = position;
+        requestLayout();
+    }
+
+    @Override
+    public void smoothScrollToPosition(RecyclerView recyclerView, RecyclerView.State state,
+            int position) {
+        if (mIndexDirty || position < 0 || position >= mIndex.getCellCount()) {
+            scrollToPosition(position);
+            return;
+        }
+
+        recyclerView.smoothScrollBy(computeScrollXToCell(position),
+                computeScrollYToRow(mIndex.getRowForPosition(position)));
+    }
+
+    @Override
+    public boolean requestChildRectangleOnScreen(@NonNull RecyclerView parent,
+            @NonNull View child, @NonNull Rect rect, boolean immediate) {
+        boolean traced = NavigationTrace.beginSection(TRACE_REQUEST_CHILD_RECTANGLE);
+        try {
+            // Only DpadAwareRecyclerView decides on smooth scrolling, others always scroll
+            // immediately
+            boolean smooth = !immediate && parent instanceof DpadAwareRecyclerView;
+
+            final int parentLeft = getPaddingLeft();
+            final int parentTop = getPaddingTop();
+            final int parentRight = getWidth() - getPaddingRight();
+            final int parentBottom = getHeight() - getPaddingBottom();
+            final int childLeft = child.getLeft() + rect.left;
+            final int childTop = child.getTop() + rect.top;
+            final int childRight = childLeft + rect.width();
+            final int childBottom = childTop + rect.height();
+
+            final int dx = NavigationMath.computeVisibleScroll(parentLeft, parentRight,
+                    childLeft, childRight);
+            final int dy = computeScrollY(parentTop, parentBottom, childTop, childBottom);
+
+            if (dx != 0 || dy != 0) {
+                if (smooth) {
+                    parent.smoothScrollBy(dx, dy);
+                } else {
+                    parent.scrollBy(dx, dy);
+                }
+                return true;
+            }
+
+            return false;
+        } finally {
+            NavigationTrace.endSection(traced);
+        }
+    }
+
+    @Override
+    public boolean onRequestChildFocus(RecyclerView parent, RecyclerView.State state, View child,
+            View focused) {
+        int position = getPosition(child);
+        if (position != mVerticalFocusTarget && !mIndexDirty
+                && position >= 0 && position < mIndex.getCellCount()) {
+            mFocusTime = computeFocusTime(position);
+        }
+        mVerticalFocusTarget = NO_POSITION;
+
+        return super.onRequestChildFocus(parent, state, child, focused);
+    }
+
+    @Override
+    public View onInterceptFocusSearch(@NonNull View focused, int direction) {
+        boolean traced = NavigationTrace.beginSection(TRACE_ON_INTERCEPT_FOCUS_SEARCH);
+        try {
+            View focusedChild = getFocusedChild();
+            if (focusedChild == null || mIndexDirty) {
+                return null;
+            }
+
+            int position = getPosition(focusedChild);
+            if (position < 0 || position >= mIndex.getCellCount()) {
+                return null;
+            }
+
+            int row = mIndex.getRowForPosition(position);
+            int target;
+            switch (direction) {
+                case View.FOCUS_LEFT:
+                    target = position > mIndex.getRowStart(row) ? position - 1 : NO_POSITION;
+                    break;
+                case View.FOCUS_RIGHT:
+                    target = position + 1 < mIndex.getRowEnd(row) ? position + 1 : NO_POSITION;
+                    break;
+                case View.FOCUS_UP:
+                    target = findCellInNearestRow(row, -1, position);
+                    break;
+                case View.FOCUS_DOWN:
+                    target = findCellInNearestRow(row, 1, position);
+                    break;
+                default:
+                    return null;
+            }
+
+            if (target == NO_POSITION) {
+                return findFocusOutside(focused, direction);
+            }
+
+            boolean vertical = direction == View.FOCUS_UP || direction == View.FOCUS_DOWN;
+            mVerticalFocusTarget = vertical ? target : NO_POSITION;
+
+            View targetView = findViewByPosition(target);
+            if (targetView != null) {
+                return targetView;
+            }
+
+            // Target is out of visible area. Bring it in and focus it after layout.
+            mPendingFocusPosition = target;
+            final int positionToScroll = target;
+            focused.post(new Runnable() {
+                @Override
+                public void run() {
+                    scrollToPosition(positionToScroll);
+                }
+            });
+
+            // Keep focus where it is meanwhile
+            return focused;
+        } finally {
+            NavigationTrace.endSection(traced);
+        }
+    }
+
+    private int findCellInNearestRow(int row, int step, int focusedPosition) {
+        long time = mFocusTime != NO_TIME ? mFocusTime : computeFocusTime(focusedPosition);
+        for (int r = row + step; r >= 0 && r < mIndex.getRowCount(); r += step) {
+            int pos = mIndex.findCellAt(r, time);
+            if (pos != NO_POSITION) {
+                return pos;
+            }
+        }
+
+        return NO_POSITION;
+    }
+
+    private long computeFocusTime(int position) {
+        return Math.max(mIndex.getStartTime(position), getVisibleStartTime());
+    }
+
+    /**
+     * Looks for next focus outside of this list. Used at edges of schedule so focus doesn't
+     * jump to some other channel or program by geometry.
+     *
+     * @return View to focus outside of the list, focused view if there is none.
+     */
+    @NonNull
+    private View findFocusOutside(@NonNull View focused, int direction) {
+        View root = focused.getRootView();
+        RecyclerView parent = mRecyclerView;
+        if (parent == null || !(root instanceof ViewGroup)) {
+            return focused;
+        }
+
+        View next = FocusFinder.getInstance().findNextFocus((ViewGroup) root, focused, direction);
+        if (next == null || next == parent || isDescendant(parent, next)) {
+            return focused;
+        }
+
+        return next;
+    }
+
+    private static boolean isDescendant(@NonNull View ancestor, @NonNull View view) {
+        ViewParent parent = view.getParent();
+        while (parent instanceof View) {
+            if (parent == ancestor) {
+                return true;
+            }
+            parent = parent.getParent();
+        }
+        return false;
+    }
+
+    private int computeScrollXToCell(int position) {
+        final int parentLeft = getPaddingLeft();
+        final int childLeft = parentLeft + timeToX(mIndex.getStartTime(position)) - mScrollX;
+        final int childRight = parentLeft + timeToX(mIndex.getEndTime(position)) - mScrollX;
+        return NavigationMath.computeVisibleScroll(parentLeft, getWidth() - getPaddingRight(),
+                childLeft, childRight);
+    }
+
+    private int computeScrollYToRow(int row) {
+        final int parentTop = getPaddingTop();
+        final int childTop = parentTop + row * mRowHeight - mScrollY;
+        return computeScrollY(parentTop, getHeight() - getPaddingBottom(), childTop,
+                childTop + mRowHeight);
+    }
+
+    private int computeScrollY(int parentTop, int parentBottom, int childTop, int childBottom) {
+        if (mOffsetEnabled) {
+            return NavigationMath.computeCameraScroll(parentTop, parentBottom, childTop,
+                    childBottom, mOffsetFraction, false);
+        }
+
+        return NavigationMath.computeVisibleScroll(parentTop, parentBottom, childTop,
+                childBottom);
+    }
+
+    private void updateArrows() {
+        boolean empty = mIndex.getCellCount() == 0;
+        mChannelArrows.update(empty || mScrollY <= 0, empty || mScrollY >= getMaxScrollY());
+        mTimeArrows.update(empty || mScrollX <= getMinScrollX(),
+                empty || mScrollX >= getMaxScrollX());
+    }
+
+    private int getMinScrollX() {
+        return timeToX(mIndex.getMinTime());
+    }
+
+    private int getMaxScrollX() {
+        int available = getWidth() - getPaddingLeft() - getPaddingRight();
+        return Math.max(getMinScrollX(), timeToX(mIndex.getMaxTime()) - available);
+    }
+
+    private int getMaxScrollY() {
+        int available = getHeight() - getPaddingTop() - getPaddingBottom();
+        return Math.max(0, mIndex.getRowCount() * mRowHeight - available);
+    }
+
+    private int timeToX(long time) {
+        return (int) ((time - getOriginTime()) * (mPixelsPerMinute / MILLIS_PER_MINUTE));
+    }
+
+    private long xToTime(int x) {
+        return getOriginTime() + (long) (x * (MILLIS_PER_MINUTE / mPixelsPerMinute));
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
@@ -26,8 +26,7 @@ import android.support.v7.widget.GridLayoutManager;
 import android.support.v7.widget.RecyclerView;
 import android.util.AttributeSet;
 import android.view.View;
-
-import java.lang.ref.WeakReference;
+import android.view.ViewGroup;
 
 /**
  * Extended {@link GridLayoutManager}.
@@ -38,10 +37,28 @@ import java.lang.ref.WeakReference;
  * <li>Circular navigation.</li>
  * <li>AUTO_FIT support similar to GridView.</li>
  * <li>Controlling 'arrow' views (any views really) indicating begin or end is reached.</li>
+ * <li>Sticky section headers which navigation skips.</li>
  * </ul>
  */
 public class ExtGridLayoutManager extends GridLayoutManager {
 
+    /**
+     * Interface definition for a callback to be invoked when list reaches or leaves its
+     * beginning or end.
+     */
+    public interface OnEdgeStateChangedListener {
+        /**
+         * Will be called after layout or scroll which changed edge state, and after the first
+         * layout.
+         *
+         * @param layoutManager The ExtGridLayoutManager whose edge state changed.
+         * @param atStart True if user sees the beginning of adapter data.
+         * @param atEnd True if user sees the end of adapter data.
+         */
+        void onEdgeStateChanged(ExtGridLayoutManager layoutManager, boolean atStart,
+                boolean atEnd);
+    }
+
     /**
      * Builder for {@link ExtGridLayoutManager}.
      */
@@ -60,6 +77,7 @@ public class ExtGridLayoutManager extends GridLayoutManager {
         @Nullable
         private View mArrowTowardEnd;
         private int mSpanSize = 0;
+        private boolean mStickyHeaders = false;
 
         public Builder(Context ctx) {
             mCtx = ctx;
@@ -171,6 +189,19 @@ public class ExtGridLayoutManager extends GridLayoutManager {
             return this;
         }
 
+        /**
+         * Pin header of the current section to the top edge. See
+         * {@link ExtGridLayoutManager#setStickyHeadersEnabled(boolean)}.
+         *
+         * @param stickyHeaders True to enable sticky headers.
+         * @return This builder instance for chaining.
+         */
+        @NonNull
+        public Builder stickyHeaders(boolean stickyHeaders) {
+            mStickyHeaders = stickyHeaders;
+            return this;
+        }
+
         /**
          * Set size of a span along main axis as dimension resource. Could be 0 or less. In that
          * case span size is determined at first measure pass. Note that {@link
@@ -205,12 +236,20 @@ public class ExtGridLayoutManager extends GridLayoutManager {
             inst.setArrowTowardBegin(mArrowTowardBegin);
             inst.setArrowTowardEnd(mArrowTowardEnd);
             inst.setSpanSizePx(mSpanSize);
+            inst.setStickyHeadersEnabled(mStickyHeaders);
             return inst;
         }
     }
 
     public static final int AUTO_FIT = 0;
 
+    private static final String TRACE_ON_MEASURE = "ExtGLM#onMeasure";
+    private static final String TRACE_RESOLVE_AUTO_FIT = "ExtGLM#resolveAutoFit";
+    private static final String TRACE_ON_LAYOUT_CHILDREN = "ExtGLM#onLayoutChildren";
+    private static final String TRACE_ON_FOCUS_SEARCH_FAILED = "ExtGLM#onFocusSearchFailed";
+    private static final String TRACE_REQUEST_CHILD_RECTANGLE =
+            "ExtGLM#requestChildRectangleOnScreen";
+
     private static final int DO_NOT_FOCUS = -1;
     private static final int FIRST = -2;
     private static final int LAST = -3;
@@ -218,10 +257,15 @@ public class ExtGridLayoutManager extends GridLayoutManager {
     private float mOffsetFraction = 0.f;
     private boolean mOffsetEnabled = false;
     private boolean mCircular = false;
-    private WeakReference<View> mArrowTowardBeginRef;
-    private WeakReference<View> mArrowTowardEndRef;
+    private final NavigationArrows mArrows = new NavigationArrows();
     private int mSpanCount = AUTO_FIT;
 
+    @Nullable
+    private OnEdgeStateChangedListener mOnEdgeStateChangedListener;
+    private boolean mEdgeStateKnown = false;
+    private boolean mAtStart = true;
+    private boolean mAtEnd = true;
+
     /**
      * Px size of one span. Only used if value equals to {@link #AUTO_FIT}.
      * If size <= 0 then one tries to determine size itself.
@@ -231,6 +275,27 @@ public class ExtGridLayoutManager extends GridLayoutManager {
 
     private int mPendingChildPositionToFocus = DO_NOT_FOCUS;
 
+    /**
+     * Adapter position to focus after next layout pass.
+     */
+    private int mPendingAdapterPositionToFocus = RecyclerView.NO_POSITION;
+
+    @Nullable
+    private WorkCounters mWorkCounters;
+
+    private boolean mStickyHeadersEnabled = false;
+    private final StickyHeaderDecoration mStickyHeaderDecoration =
+            new StickyHeaderDecoration(this);
+    /**
+     * Header positions, i.e. section starts of {@link DpadAwareRecyclerView.SectionProvider}.
+     */
+    private final SectionIndex mHeaderIndex = new SectionIndex();
+    private boolean mHeaderIndexValid = false;
+    private final Rect mTmpRect = new Rect();
+
+    @Nullable
+    private RecyclerView mRecyclerView;
+
     public ExtGridLayoutManager(Context context, AttributeSet attrs, int defStyleAttr,
             int defStyleRes) {
         super(context, attrs, defStyleAttr, defStyleRes);
@@ -271,27 +336,272 @@ public class ExtGridLayoutManager extends GridLayoutManager {
     }
 
     public void setArrowTowardBegin(View arrowTowardBegin) {
-        mArrowTowardBeginRef = new WeakReference<>(arrowTowardBegin);
+        mArrows.setTowardBegin(arrowTowardBegin);
+        if (mEdgeStateKnown) {
+            mArrows.update(mAtStart, mAtEnd);
+        }
     }
 
     public void setArrowTowardEnd(View arrowTowardEnd) {
-        mArrowTowardEndRef = new WeakReference<>(arrowTowardEnd);
+        mArrows.setTowardEnd(arrowTowardEnd);
+        if (mEdgeStateKnown) {
+            mArrows.update(mAtStart, mAtEnd);
+        }
     }
 
     @Nullable
     public View getArrowTowardBegin() {
-        return mArrowTowardBeginRef == null ? null : mArrowTowardBeginRef.get();
+        return mArrows.getTowardBegin();
     }
 
     @Nullable
     public View getArrowTowardEnd() {
-        return mArrowTowardEndRef == null ? null : mArrowTowardEndRef.get();
+        return mArrows.getTowardEnd();
     }
 
     public void setSpanSizePx(int spanSizePx) {
         mSpanSize = spanSizePx;
     }
 
+    /**
+     * Register a callback to be invoked when edge state changes. Edge state is computed once
+     * per layout or scroll and dispatched only if it differs from the previous one. Navigation
+     * arrows are updated the same way.
+     *
+     * @param listener The callback or null to remove it.
+     */
+    public void setOnEdgeStateChangedListener(@Nullable OnEdgeStateChangedListener listener) {
+        mOnEdgeStateChangedListener = listener;
+    }
+
+    @Nullable
+    public OnEdgeStateChangedListener getOnEdgeStateChangedListener() {
+        return mOnEdgeStateChangedListener;
+    }
+
+    /**
+     * @return True if user sees the beginning of adapter data as of last layout or scroll.
+     */
+    public boolean isAtStart() {
+        return mAtStart;
+    }
+
+    /**
+     * @return True if user sees the end of adapter data as of last layout or scroll.
+     */
+    public boolean isAtEnd() {
+        return mAtEnd;
+    }
+
+    /**
+     * Pin header of the current section to the top edge of vertical list. Adapter must
+     * implement {@link DpadAwareRecyclerView.SectionProvider}: item at each section start is
+     * a header, usually a full-span one. Headers are made non-focusable, so D-pad navigation
+     * moves from the last item of a section straight to the first item of the next one.
+     *
+     * @param enabled True to enable sticky headers.
+     */
+    public void setStickyHeadersEnabled(boolean enabled) {
+        if (mStickyHeadersEnabled == enabled) {
+            return;
+        }
+
+        mStickyHeadersEnabled = enabled;
+        if (mRecyclerView != null) {
+            if (enabled) {
+                mRecyclerView.addItemDecoration(mStickyHeaderDecoration);
+            } else {
+                mRecyclerView.removeItemDecoration(mStickyHeaderDecoration);
+            }
+        }
+        requestLayout();
+    }
+
+    public boolean isStickyHeadersEnabled() {
+        return mStickyHeadersEnabled;
+    }
+
+    /**
+     * @param position Adapter position.
+     * @return True if sticky headers are enabled and item at passed position is a header.
+     */
+    boolean isHeader(int position) {
+        if (!mStickyHeadersEnabled) {
+            return false;
+        }
+
+        ensureHeaderIndex();
+        return mHeaderIndex.isSectionStart(position);
+    }
+
+    /**
+     * @param position Adapter position.
+     * @return Position of header of the section containing passed position or
+     * {@link RecyclerView#NO_POSITION} if there is none.
+     */
+    int getHeaderPosition(int position) {
+        ensureHeaderIndex();
+        int section = mHeaderIndex.getSectionForPosition(position);
+        return section >= 0 ? mHeaderIndex.getSectionStart(section) : RecyclerView.NO_POSITION;
+    }
+
+    /**
+     * @param position Adapter position.
+     * @return Position of header of the section following the one containing passed position
+     * or {@link RecyclerView#NO_POSITION} if there is none.
+     */
+    int getNextHeaderPosition(int position) {
+        ensureHeaderIndex();
+        return mHeaderIndex.getNextSectionStart(position);
+    }
+
+    private void ensureHeaderIndex() {
+        if (!mHeaderIndexValid) {
+            RecyclerView.Adapter adapter = mRecyclerView != null
+                    ? mRecyclerView.getAdapter() : null;
+            mHeaderIndex.set(adapter instanceof DpadAwareRecyclerView.SectionProvider
+                    ? ((DpadAwareRecyclerView.SectionProvider) adapter).getSectionPositions()
+                    : null);
+            mHeaderIndexValid = mRecyclerView != null;
+        }
+    }
+
+    private void invalidateHeaders() {
+        mHeaderIndexValid = false;
+        mStickyHeaderDecoration.invalidate();
+    }
+
+    @Override
+    public void onAttachedToWindow(RecyclerView view) {
+        super.onAttachedToWindow(view);
+
+        mRecyclerView = view;
+        mHeaderIndexValid = false;
+        if (mStickyHeadersEnabled) {
+            view.addItemDecoration(mStickyHeaderDecoration);
+        }
+    }
+
+    @Override
+    public void onDetachedFromWindow(RecyclerView view, RecyclerView.Recycler recycler) {
+        super.onDetachedFromWindow(view, recycler);
+
+        if (mStickyHeadersEnabled) {
+            view.removeItemDecoration(mStickyHeaderDecoration);
+        }
+        mRecyclerView = null;
+    }
+
+    @Override
+    public void onAdapterChanged(RecyclerView.Adapter oldAdapter,
+            RecyclerView.Adapter newAdapter) {
+        super.onAdapterChanged(oldAdapter, newAdapter);
+        mStickyHeaderDecoration.reset();
+        invalidateHeaders();
+    }
+
+    @Override
+    public void onItemsChanged(RecyclerView recyclerView) {
+        super.onItemsChanged(recyclerView);
+        invalidateHeaders();
+    }
+
+    @Override
+    public void onItemsAdded(RecyclerView recyclerView, int positionStart, int itemCount) {
+        super.onItemsAdded(recyclerView, positionStart, itemCount);
+        invalidateHeaders();
+    }
+
+    @Override
+    public void onItemsRemoved(RecyclerView recyclerView, int positionStart, int itemCount) {
+        super.onItemsRemoved(recyclerView, positionStart, itemCount);
+        invalidateHeaders();
+    }
+
+    @Override
+    public void onItemsUpdated(RecyclerView recyclerView, int positionStart, int itemCount) {
+        super.onItemsUpdated(recyclerView, positionStart, itemCount);
+        // Positions stay, but pinned header may show stale content
+        mStickyHeaderDecoration.invalidate();
+    }
+
+    @Override
+    public void onItemsMoved(RecyclerView recyclerView, int from, int to, int itemCount) {
+        super.onItemsMoved(recyclerView, from, to, itemCount);
+        invalidateHeaders();
+    }
+
+    /**
+     * Gets maximum number of lines (rows for vertical orientation, columns for horizontal)
+     * that can be at least partially visible at once. Estimation is based on currently laid
+     * out children.
+     *
+     * @return Number of lines or 0 if there are no children yet.
+     */
+    public int getVisibleLineCount() {
+        if (getChildCount() == 0) {
+            return 0;
+        }
+
+        View child = getChildAt(0);
+        int lineSize;
+        int available;
+        if (getOrientation() == VERTICAL) {
+            lineSize = getDecoratedMeasuredHeight(child);
+            available = getHeight() - getPaddingTop() - getPaddingBottom();
+        } else {
+            lineSize = getDecoratedMeasuredWidth(child);
+            available = getWidth() - getPaddingLeft() - getPaddingRight();
+        }
+
+        return computeVisibleLineCount(available, lineSize);
+    }
+
+    /**
+     * Estimates how many items can be at least partially visible at once. Useful before first
+     * layout, e.g. for {@link DpadAwareRecyclerView#prewarmViewHolders(int, int)}. Span count
+     * of unresolved {@link #AUTO_FIT} is computed from span size and current size of the list
+     * across orientation, see {@link #estimateVisibleItemCount(int, int, int)} to pass that
+     * size before the list is measured.
+     *
+     * @param viewportSize Size of viewport along orientation axis in px.
+     * @param lineSize     Size of one line (item size along orientation axis) in px.
+     * @return Number of items or 0 if sizes are not positive.
+     */
+    public int estimateVisibleItemCount(int viewportSize, int lineSize) {
+        return estimateVisibleItemCount(viewportSize, lineSize,
+                getOrientation() == VERTICAL ? getWidth() : getHeight());
+    }
+
+    /**
+     * Same as {@link #estimateVisibleItemCount(int, int)} but with explicit size of the list
+     * across orientation. If span count is {@link #AUTO_FIT} and not resolved yet, it is
+     * computed from that size and span size set with {@link #setSpanSizePx(int)}. Without
+     * span size one span is assumed.
+     *
+     * @param viewportSize Size of viewport along orientation axis in px.
+     * @param lineSize     Size of one line (item size along orientation axis) in px.
+     * @param crossSize    Size of the list across orientation axis in px.
+     * @return Number of items or 0 if sizes are not positive.
+     */
+    public int estimateVisibleItemCount(int viewportSize, int lineSize, int crossSize) {
+        int spanCount = getSpanCount();
+        if (mSpanCount == AUTO_FIT && mSpanSize > 0 && crossSize > 0) {
+            spanCount = NavigationMath.computeAutoFitSpanCount(crossSize, mSpanSize);
+        }
+
+        return spanCount * computeVisibleLineCount(viewportSize, lineSize);
+    }
+
+    private static int computeVisibleLineCount(int available, int lineSize) {
+        if (lineSize <= 0 || available <= 0) {
+            return 0;
+        }
+
+        // Lines fully inside viewport plus partially visible ones on both edges.
+        return (available - 1) / lineSize + 2;
+    }
+
     @Override
     public void setSpanCount(int spanCount) {
         if (spanCount < 1 && spanCount != AUTO_FIT) {
@@ -311,6 +621,16 @@ public class ExtGridLayoutManager extends GridLayoutManager {
     @Override
     public void onMeasure(@NonNull RecyclerView.Recycler recycler, RecyclerView.State state, int widthSpec,
             int heightSpec) {
+        boolean traced = NavigationTrace.beginSection(TRACE_ON_MEASURE);
+        try {
+            onMeasureInner(recycler, state, widthSpec, heightSpec);
+        } finally {
+            NavigationTrace.endSection(traced);
+        }
+    }
+
+    private void onMeasureInner(@NonNull RecyclerView.Recycler recycler,
+            RecyclerView.State state, int widthSpec, int heightSpec) {
         boolean wrap;
 
         int orientation = getOrientation();
@@ -326,6 +646,7 @@ public class ExtGridLayoutManager extends GridLayoutManager {
         if (wrap && getItemCount() > 0) {
             int spanCount = getSpanCount();
             View dummyChild = recycler.getViewForPosition(0);
+            countViewForPosition();
             measureChildWithMargins(dummyChild, 0, 0);
 
             if (orientation == VERTICAL) {
@@ -333,14 +654,16 @@ public class ExtGridLayoutManager extends GridLayoutManager {
                 int supposedOccupiedWidth = dummyChild.getMeasuredWidth() * spanCount;
 
                 if (supposedOccupiedWidth <= widthSize) {
-                    widthSpec = View.MeasureSpec.makeMeasureSpec(supposedOccupiedWidth, widthMode);
+                    widthSpec = View.MeasureSpec.makeMeasureSpec(supposedOccupiedWidth,
+                            widthMode);
                 }
             } else {
                 int heightSize = View.MeasureSpec.getSize(heightSpec);
                 int supposedOccupiedHeight = dummyChild.getMeasuredHeight() * spanCount;
 
                 if (supposedOccupiedHeight <= heightSize) {
-                    heightSpec = View.MeasureSpec.makeMeasureSpec(supposedOccupiedHeight, heightMode);
+                    heightSpec = View.MeasureSpec.makeMeasureSpec(supposedOccupiedHeight,
+                            heightMode);
                 }
             }
         }
@@ -353,11 +676,21 @@ public class ExtGridLayoutManager extends GridLayoutManager {
     }
 
     private void resolveAutoFit(@NonNull RecyclerView.Recycler recycler) {
+        boolean traced = NavigationTrace.beginSection(TRACE_RESOLVE_AUTO_FIT);
+        try {
+            resolveAutoFitInner(recycler);
+        } finally {
+            NavigationTrace.endSection(traced);
+        }
+    }
+
+    private void resolveAutoFitInner(@NonNull RecyclerView.Recycler recycler) {
         int orientation = getOrientation();
 
         // Have no span size data. Trying to determine it from what children want themselves.
         if (mSpanSize <= 0) {
             View dummyChild = recycler.getViewForPosition(0);
+            countViewForPosition();
             mSpanSize = orientation == VERTICAL
                     ? getDecoratedMeasuredWidth(dummyChild)
                     : getDecoratedMeasuredHeight(dummyChild);
@@ -365,13 +698,27 @@ public class ExtGridLayoutManager extends GridLayoutManager {
 
         if (mSpanSize > 0) {
             int size = orientation == VERTICAL ? getWidth() : getHeight();
-            int spanCount = Math.max(1, size / mSpanSize);
+            int spanCount = NavigationMath.computeAutoFitSpanCount(size, mSpanSize);
             setSpanCount(spanCount);
         }
     }
 
     @Override
     public void onLayoutChildren(RecyclerView.Recycler recycler, @NonNull RecyclerView.State state) {
+        boolean traced = NavigationTrace.beginSection(TRACE_ON_LAYOUT_CHILDREN);
+        try {
+            onLayoutChildrenInner(recycler, state);
+        } finally {
+            NavigationTrace.endSection(traced);
+        }
+    }
+
+    private void onLayoutChildrenInner(RecyclerView.Recycler recycler,
+            @NonNull RecyclerView.State state) {
+        if (mWorkCounters != null) {
+            mWorkCounters.onLayoutChildren();
+        }
+
         super.onLayoutChildren(recycler, state);
 
         if (mPendingChildPositionToFocus != DO_NOT_FOCUS) {
@@ -388,45 +735,137 @@ public class ExtGridLayoutManager extends GridLayoutManager {
                     layoutPosToFocus = mPendingChildPositionToFocus;
             }
 
-            if (layoutPosToFocus >= 0 && layoutPosToFocus < getChildCount()) {
-                getChildAt(layoutPosToFocus).requestFocus();
+            // Skip non-focusable children, e.g. headers
+            int step = mPendingChildPositionToFocus == LAST ? -1 : 1;
+            while (layoutPosToFocus >= 0 && layoutPosToFocus < getChildCount()
+                    && !getChildAt(layoutPosToFocus).requestFocus()) {
+                layoutPosToFocus += step;
             }
 
             mPendingChildPositionToFocus = DO_NOT_FOCUS;
         }
 
-        updateArrowTowardBeginVisibility();
-        updateArrowTowardEndVisibility();
+        if (mPendingAdapterPositionToFocus != RecyclerView.NO_POSITION
+                && !state.isPreLayout()) {
+            View view = findViewByPosition(mPendingAdapterPositionToFocus);
+            mPendingAdapterPositionToFocus = RecyclerView.NO_POSITION;
+
+            if (view != null) {
+                view.requestFocus();
+            }
+        }
+
+        if (!state.isPreLayout()) {
+            updateEdgeState();
+        }
+    }
+
+    @Override
+    public void addView(View child, int index) {
+        // Every child added during layout was obtained from recycler right before
+        countViewForPosition();
+
+        HeaderFocusState saved = (HeaderFocusState) child.getTag(R.id.darv_header_focus);
+        if (isHeader(getPosition(child))) {
+            // Navigation goes past headers, their section is seen from the pinned one anyway
+            if (saved == null) {
+                child.setTag(R.id.darv_header_focus, new HeaderFocusState(child));
+            }
+            child.setFocusable(false);
+            if (child instanceof ViewGroup) {
+                ((ViewGroup) child).setDescendantFocusability(
+                        ViewGroup.FOCUS_BLOCK_DESCENDANTS);
+            }
+        } else if (saved != null) {
+            // View used to be a header but now is rebound to a regular item
+            child.setTag(R.id.darv_header_focus, null);
+            saved.restore(child);
+        }
+
+        super.addView(child, index);
+    }
+
+    /**
+     * Focus state of a view before it was made a header.
+     */
+    private static final class HeaderFocusState {
+        private final boolean mFocusable;
+        private final int mDescendantFocusability;
+
+        HeaderFocusState(View view) {
+            mFocusable = view.isFocusable();
+            mDescendantFocusability = view instanceof ViewGroup
+                    ? ((ViewGroup) view).getDescendantFocusability()
+                    : ViewGroup.FOCUS_BEFORE_DESCENDANTS;
+        }
+
+        void restore(View view) {
+            view.setFocusable(mFocusable);
+            if (view instanceof ViewGroup) {
+                ((ViewGroup) view).setDescendantFocusability(mDescendantFocusability);
+            }
+        }
+    }
+
+    private void countViewForPosition() {
+        if (mWorkCounters != null) {
+            mWorkCounters.onViewForPosition();
+        }
+    }
+
+    void setWorkCounters(@Nullable WorkCounters workCounters) {
+        mWorkCounters = workCounters;
     }
 
     @Override
-    public boolean onRequestChildFocus(RecyclerView parent, RecyclerView.State state, View child,
-            View focused) {
-        updateArrowTowardBeginVisibility();
-        updateArrowTowardEndVisibility();
+    public int scrollVerticallyBy(int dy, RecyclerView.Recycler recycler,
+            RecyclerView.State state) {
+        int consumed = super.scrollVerticallyBy(dy, recycler, state);
+        updateEdgeState();
+        return consumed;
+    }
 
-        return super.onRequestChildFocus(parent, state, child, focused);
+    @Override
+    public int scrollHorizontallyBy(int dx, RecyclerView.Recycler recycler,
+            RecyclerView.State state) {
+        int consumed = super.scrollHorizontallyBy(dx, recycler, state);
+        updateEdgeState();
+        return consumed;
     }
 
     @Override
     public View onFocusSearchFailed(@NonNull View focused, int focusDirection,
             RecyclerView.Recycler recycler, RecyclerView.State state) {
+        boolean traced = NavigationTrace.beginSection(TRACE_ON_FOCUS_SEARCH_FAILED);
+        try {
+            return onFocusSearchFailedInner(focused, focusDirection, recycler, state);
+        } finally {
+            NavigationTrace.endSection(traced);
+        }
+    }
+
+    private View onFocusSearchFailedInner(@NonNull View focused, int focusDirection,
+            RecyclerView.Recycler recycler, RecyclerView.State state) {
         View nextView = super.onFocusSearchFailed(focused, focusDirection, recycler, state);
 
         if (nextView == null) {
             if (mCircular) {
-                final int adapterPositionToJump;
-                if ((focusDirection == View.FOCUS_DOWN && getOrientation() == VERTICAL)
-                        || (focusDirection == View.FOCUS_RIGHT && getOrientation() == HORIZONTAL)) {
-                    adapterPositionToJump = 0;
-                    mPendingChildPositionToFocus = FIRST;
-                } else if ((focusDirection == View.FOCUS_UP && getOrientation() == VERTICAL)
-                        || (focusDirection == View.FOCUS_LEFT && getOrientation() == HORIZONTAL)) {
-                    adapterPositionToJump = getItemCount() - 1;
-                    mPendingChildPositionToFocus = LAST;
-                } else {
+                int orientation = getOrientation();
+                int step = 0;
+                if ((focusDirection == View.FOCUS_DOWN && orientation == VERTICAL)
+                        || (focusDirection == View.FOCUS_RIGHT && orientation == HORIZONTAL)) {
+                    step = 1;
+                } else if ((focusDirection == View.FOCUS_UP && orientation == VERTICAL)
+                        || (focusDirection == View.FOCUS_LEFT && orientation == HORIZONTAL)) {
+                    step = -1;
+                }
+
+                final int adapterPositionToJump =
+                        NavigationMath.computeCircularJumpTarget(step, getItemCount());
+                if (adapterPositionToJump == NavigationMath.NO_POSITION) {
                     return null;
                 }
+                mPendingChildPositionToFocus = step > 0 ? FIRST : LAST;
 
                 // Can't initiate scrolling because requesting layout is forbidden in this state
                 focused.post(new Runnable() {
@@ -441,6 +880,59 @@ public class ExtGridLayoutManager extends GridLayoutManager {
         return null;
     }
 
+    /**
+     * Focus item which is aligned with passed rect along orientation axis, e.g. item in the
+     * same column of horizontal list when focus comes from a row above. Target is computed from
+     * grid geometry: if it is not laid out yet, it is laid out at rect's offset and focused
+     * in the same layout pass.
+     *
+     * @param rect Previously focused rect in list's coordinates.
+     * @param direction Direction focus moves in. Must go across orientation.
+     * @return True if focus is requested, false if geometry doesn't allow alignment, e.g.
+     * custom span sizes or reversed layout.
+     */
+    boolean requestAlignedFocus(@NonNull Rect rect, int direction) {
+        final boolean vertical = getOrientation() == VERTICAL;
+        final boolean across = vertical
+                ? direction == View.FOCUS_LEFT || direction == View.FOCUS_RIGHT
+                : direction == View.FOCUS_UP || direction == View.FOCUS_DOWN;
+        final int itemCount = getItemCount();
+        if (!across || getChildCount() == 0 || itemCount == 0 || getReverseLayout()
+                || (!vertical && getLayoutDirection() == View.LAYOUT_DIRECTION_RTL)
+                || !(getSpanSizeLookup() instanceof DefaultSpanSizeLookup)) {
+            return false;
+        }
+
+        View anchor = getChildAt(0);
+        int lineSize = vertical
+                ? getDecoratedMeasuredHeight(anchor) : getDecoratedMeasuredWidth(anchor);
+        if (lineSize <= 0) {
+            return false;
+        }
+
+        final int spanCount = getSpanCount();
+        final int anchorLine = getPosition(anchor) / spanCount;
+        final int anchorStart = vertical ? getDecoratedTop(anchor) : getDecoratedLeft(anchor);
+        final int line = NavigationMath.computeAlignedLine(anchorLine, anchorStart, lineSize,
+                vertical ? rect.centerY() : rect.centerX(), (itemCount - 1) / spanCount + 1);
+
+        // Focus coming from below or from the right enters the last span
+        int span = direction == View.FOCUS_UP || direction == View.FOCUS_LEFT
+                ? spanCount - 1 : 0;
+        int position = Math.min(itemCount - 1, line * spanCount + span);
+
+        View view = findViewByPosition(position);
+        if (view != null) {
+            return view.requestFocus();
+        }
+
+        int offset = anchorStart + (line - anchorLine) * lineSize
+                - (vertical ? getPaddingTop() : getPaddingLeft());
+        mPendingAdapterPositionToFocus = position;
+        scrollToPositionWithOffset(position, offset);
+        return true;
+    }
+
     @Override
     public void scrollToPosition(int position) {
         if (mOffsetEnabled) {
@@ -457,8 +949,31 @@ public class ExtGridLayoutManager extends GridLayoutManager {
     @Override
     public boolean requestChildRectangleOnScreen(@NonNull RecyclerView parent, @NonNull View child, @NonNull Rect rect,
             boolean immediate) {
+        boolean traced = NavigationTrace.beginSection(TRACE_REQUEST_CHILD_RECTANGLE);
+        try {
+            return requestChildRectangleOnScreenInner(parent, child, rect, immediate);
+        } finally {
+            NavigationTrace.endSection(traced);
+        }
+    }
+
+    private boolean requestChildRectangleOnScreenInner(@NonNull RecyclerView parent,
+            @NonNull View child, @NonNull Rect rect, boolean immediate) {
+        // Only DpadAwareRecyclerView decides on smooth scrolling, others always scroll
+        // immediately
+        boolean smooth = !immediate && parent instanceof DpadAwareRecyclerView;
+
+        // Keep item out from under pinned header
+        int headerHeight = mStickyHeadersEnabled && getOrientation() == VERTICAL
+                ? mStickyHeaderDecoration.getHeaderHeight() : 0;
+        if (headerHeight > 0) {
+            mTmpRect.set(rect);
+            mTmpRect.top -= headerHeight;
+            rect = mTmpRect;
+        }
+
         if (!mOffsetEnabled) {
-            return super.requestChildRectangleOnScreen(parent, child, rect, true);
+            return super.requestChildRectangleOnScreen(parent, child, rect, !smooth);
         }
 
         final int parentLeft = getPaddingLeft();
@@ -470,100 +985,61 @@ public class ExtGridLayoutManager extends GridLayoutManager {
         final int childRight = childLeft + rect.width();
         final int childBottom = childTop + rect.height();
 
-        int cameraLeft;
-        int cameraRight;
-        int cameraTop;
-        int cameraBottom;
-
-        final int cameraCenterX = (int) ((parentRight + parentLeft) * mOffsetFraction);
-        final int childHalfWidth = (int) Math.ceil((childRight - childLeft) * 0.5);
-        cameraLeft = cameraCenterX - childHalfWidth;
-        cameraRight = cameraCenterX + childHalfWidth;
-
-        final int cameraCenterY = (int) ((parentBottom + parentTop) * mOffsetFraction);
-        final int childHalfHeight = (int) Math.ceil((childBottom - childTop) * 0.5);
-        cameraTop = cameraCenterY - childHalfHeight;
-        cameraBottom = cameraCenterY + childHalfHeight;
-
-        final int offScreenLeft = Math.min(0, childLeft - cameraLeft);
-        final int offScreenTop = Math.min(0, childTop - cameraTop);
-        final int offScreenRight = Math.max(0, childRight - cameraRight);
-        final int offScreenBottom = Math.max(0, childBottom - cameraBottom);
-
-        // Favor the "start" layout direction over the end when bringing one side or the other
-        // of a large rect into view. If we decide to bring in end because start is already
-        // visible, limit the scroll such that start won't go out of bounds.
-        final int dx;
-        if (getLayoutDirection() == View.LAYOUT_DIRECTION_RTL) {
-            dx = offScreenRight != 0 ? offScreenRight
-                    : Math.max(offScreenLeft, childRight - parentRight);
-        } else {
-            dx = offScreenLeft != 0 ? offScreenLeft
-                    : Math.min(childLeft - parentLeft, offScreenRight);
-        }
-
-        // Favor bringing the top into view over the bottom. If top is already visible and
-        // we should scroll to make bottom visible, make sure top does not go out of bounds.
-        final int dy = offScreenTop != 0 ? offScreenTop
-                : Math.min(childTop - parentTop, offScreenBottom);
+        // Horizontally start is favored unless layout is RTL, vertically top is favored
+        final int dx = NavigationMath.computeCameraScroll(parentLeft, parentRight,
+                childLeft, childRight, mOffsetFraction,
+                getLayoutDirection() == View.LAYOUT_DIRECTION_RTL);
+        final int dy = NavigationMath.computeCameraScroll(parentTop, parentBottom,
+                childTop, childBottom, mOffsetFraction, false);
 
         if (dx != 0 || dy != 0) {
-            parent.scrollBy(dx, dy);
+            if (smooth) {
+                parent.smoothScrollBy(dx, dy);
+            } else {
+                parent.scrollBy(dx, dy);
+            }
             return true;
         }
 
         return false;
     }
 
-    private void updateArrowTowardBeginVisibility() {
-        View arrowTowardBegin;
-        if (mArrowTowardBeginRef == null || (arrowTowardBegin = mArrowTowardBeginRef.get()) == null) {
+    private void updateEdgeState() {
+        boolean atStart = isBeginReached();
+        boolean atEnd = isEndReached();
+        if (mEdgeStateKnown && atStart == mAtStart && atEnd == mAtEnd) {
             return;
         }
 
-        if (getChildCount() == 0) {
-            arrowTowardBegin.setVisibility(View.INVISIBLE);
-        } else {
-            View firstChild = getChildAt(0);
-            int beginTop = firstChild.getTop();
-            int beginLeft = firstChild.getLeft();
-            int paddingTop = getPaddingTop();
-            int paddingLeft = getPaddingLeft();
-            int beginAdapterPosition = getPosition(firstChild);
-
-            if (beginAdapterPosition == 0 && beginTop >= paddingTop && beginLeft >= paddingLeft) {
-                arrowTowardBegin.setVisibility(View.INVISIBLE);
-            } else {
-                arrowTowardBegin.setVisibility(View.VISIBLE);
-            }
-        }
-    }
+        mEdgeStateKnown = true;
+        mAtStart = atStart;
+        mAtEnd = atEnd;
 
-    private void updateArrowTowardEndVisibility() {
-        View arrowTowardEnd;
-        if (mArrowTowardEndRef == null || (arrowTowardEnd = mArrowTowardEndRef.get()) == null) {
-            return;
+        mArrows.update(atStart, atEnd);
+        if (mOnEdgeStateChangedListener != null) {
+            mOnEdgeStateChangedListener.onEdgeStateChanged(this, atStart, atEnd);
         }
+    }
 
+    private boolean isBeginReached() {
         if (getChildCount() == 0) {
-            arrowTowardEnd.setVisibility(View.INVISIBLE);
-        } else {
-            View lastChild = getChildAt(getChildCount() - 1);
-            int endBottom = lastChild.getBottom();
-            int endRight = lastChild.getRight();
-            int bottomLine = getHeight() - getPaddingBottom();
-            int rightLine = getWidth() - getPaddingRight();
-            int endAdapterPosition = getPosition(lastChild);
-            int itemCount = getItemCount();
-
-            if (endAdapterPosition == itemCount - 1
-                    && endBottom <= bottomLine && endRight <= rightLine) {
-                arrowTowardEnd.setVisibility(View.INVISIBLE);
-            } else {
-                arrowTowardEnd.setVisibility(View.VISIBLE);
-            }
+            return true;
         }
+
+        View firstChild = getChildAt(0);
+        return getPosition(firstChild) == 0
+                && firstChild.getTop() >= getPaddingTop()
+                && firstChild.getLeft() >= getPaddingLeft();
     }
 
+    private boolean isEndReached() {
+        if (getChildCount() == 0) {
+            return true;
+        }
 
+        View lastChild = getChildAt(getChildCount() - 1);
+        return getPosition(lastChild) == getItemCount() - 1
+                && lastChild.getBottom() <= getHeight() - getPaddingBottom()
+                && lastChild.getRight() <= getWidth() - getPaddingRight();
+    }
 }
@@ -56,6 +56,40 @@ class FocusArchivist {
         mLastSelectedId = rv.getChildItemId(child);
     }
 
+    /**
+     * Shift remembered position after items were inserted.
+     *
+     * @param positionStart Position of the first inserted item.
+     * @param itemCount Number of inserted items.
+     */
+    void onItemRangeInserted(int positionStart, int itemCount) {
+        mLastSelectedPos = NavigationMath.positionAfterInsert(mLastSelectedPos, positionStart,
+                itemCount);
+    }
+
+    /**
+     * Shift remembered position after items were removed.
+     *
+     * @param positionStart Position of the first removed item.
+     * @param itemCount Number of removed items.
+     */
+    void onItemRangeRemoved(int positionStart, int itemCount) {
+        mLastSelectedPos = NavigationMath.positionAfterRemove(mLastSelectedPos, positionStart,
+                itemCount);
+    }
+
+    /**
+     * Shift remembered position after items were moved.
+     *
+     * @param fromPosition Previous position of the first moved item.
+     * @param toPosition New position of the first moved item.
+     * @param itemCount Number of moved items.
+     */
+    void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+        mLastSelectedPos = NavigationMath.positionAfterMove(mLastSelectedPos, fromPosition,
+                toPosition, itemCount);
+    }
+
     /**
      * Gets last focused view.
      *
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2016 Vsevolod Ganin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ganin.darv;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of durations in milliseconds with fixed linear buckets. Recording never allocates,
+ * so it is safe to feed on every frame. Durations beyond the last bucket are counted in it.
+ */
+public final class LatencyHistogram {
+
+    private final long[] mBuckets;
+    private final int mBucketWidth;
+    private long mCount = 0;
+    private long mMax = 0;
+
+    /**
+     * Create histogram.
+     *
+     * @param bucketWidth Width of one bucket in milliseconds.
+     * @param bucketCount Number of buckets.
+     */
+    public LatencyHistogram(int bucketWidth, int bucketCount) {
+        if (bucketWidth < 1) {
+            throw new IllegalArgumentException("Bucket width must be > 0");
+        }
+
+        if (bucketCount < 1) {
+            throw new IllegalArgumentException("Bucket count must be > 0");
+        }
+
+        mBucketWidth = bucketWidth;
+        mBuckets = new long[bucketCount];
+    }
+
+    /**
+     * Add duration to histogram. Negative durations are ignored.
+     *
+     * @param millis Duration in milliseconds.
+     */
+    public void record(long millis) {
+        if (millis < 0) {
+            return;
+        }
+
+        int bucket = (int) Math.min(millis / mBucketWidth, mBuckets.length - 1);
+        mBuckets[bucket]++;
+        mCount++;
+        mMax = Math.max(mMax, millis);
+    }
+
+    /**
+     * @return Number of recorded durations.
+     */
+    public long getCount() {
+        return mCount;
+    }
+
+    /**
+     * @return Largest recorded duration in milliseconds.
+     */
+    public long getMax() {
+        return mMax;
+    }
+
+    /**
+     * Gets duration below which passed fraction of recorded durations fall. Precision is
+     * limited by bucket width: the largest duration that falls into the bucket is returned,
+     * or {@link #getMax()} if it is lower.
+     *
+     * @param fraction Fraction in range [0; 1], e.g. 0.95 for 95th percentile.
+     * @return Duration in milliseconds or 0 if nothing is recorded.
+     */
+    public long getPercentile(float fraction) {
+        if (mCount == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(Math.max(0f, Math.min(1f, fraction)) * mCount);
+        rank = Math.max(1, rank);
+
+        long seen = 0;
+        for (int i = 0; i < mBuckets.length; i++) {
+            seen += mBuckets[i];
+            if (seen >= rank && i < mBuckets.length - 1) {
+                return Math.min((long) (i + 1) * mBucketWidth - 1, mMax);
+            }
+        }
+
+        return mMax;
+    }
+
+    /**
+     * @return Median duration in milliseconds.
+     */
+    public long getP50() {
+        return getPercentile(0.5f);
+    }
+
+    /**
+     * @return 95th percentile duration in milliseconds.
+     */
+    public long getP95() {
+        return getPercentile(0.95f);
+    }
+
+    /**
+     * @return 99th percentile duration in milliseconds.
+     */
+    public long getP99() {
+        return getPercentile(0.99f);
+    }
+
+    /**
+     * Forget all recorded durations.
+     */
+    public void reset() {
+        Arrays.fill(mBuckets, 0);
+        mCount = 0;
+        mMax = 0;
+    }
+}
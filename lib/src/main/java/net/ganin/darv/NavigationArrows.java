@@ -0,0 +1,73 @@
+/*
+ * Copyright 2016 Vsevolod Ganin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.ganin.darv;
+
+import android.support.annotation.Nullable;
+import android.view.View;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * Pair of 'arrow' views (any views really) indicating that list content continues toward its
+ * beginning or end along one axis. Views are referenced weakly so layout manager doesn't keep
+ * them alive.
+ */
+final class NavigationArrows {
+
+    @Nullable
+    private WeakReference<View> mTowardBeginRef;
+    @Nullable
+    private WeakReference<View> mTowardEndRef;
+
+    void setTowardBegin(@Nullable View arrowTowardBegin) {
+        mTowardBeginRef = new WeakReference<>(arrowTowardBegin);
+    }
+
+    void setTowardEnd(@Nullable View arrowTowardEnd) {
+        mTowardEndRef = new WeakReference<>(arrowTowardEnd);
+    }
+
+    @Nullable
+    View getTowardBegin() {
+        return mTowardBeginRef == null ? null : mTowardBeginRef.get();
+    }
+
+    @Nullable
+    View getTowardEnd() {
+        return mTowardEndRef == null ? null : mTowardEndRef.get();
+    }
+
+    /**
+     * Hide arrows toward reached sides, show the rest. Visibility of an arrow is only touched
+     * if it differs, so unchanged arrows are neither laid out nor invalidated.
+     *
+     * @param beginReached True if user sees the beginning of content.
+     * @param endReached True if user sees the end of content.
+     */
+    void update(boolean beginReached, boolean endReached) {
+        setVisible(getTowardBegin(), !beginReached);
+        setVisible(getTowardEnd(), !endReached);
+    }
+
+    private static void setVisible(@Nullable View arrow, boolean visible) {
+        int visibility = visible ? View.VISIBLE : View.INVISIBLE;
+        if (arrow != null && arrow.getVisibility() != visibility) {
+            arrow.setVisibility(visibility);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2016 Vsevolod Ganin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ganin.darv;
+
+/**
+ * Navigation arithmetic which is run on every key press. Kept free of Android classes so it can
+ * be benchmarked on plain JVM (see {@code benchmark} module).
+ */
+final class NavigationMath {
+
+    /**
+     * Same as {@link android.support.v7.widget.RecyclerView#NO_POSITION}.
+     */
+    static final int NO_POSITION = -1;
+
+    private NavigationMath() {
+    }
+
+    /**
+     * Linear interpolation between two coordinates.
+     *
+     * @param start Start value.
+     * @param end End value.
+     * @param fraction Fraction of the way from start to end.
+     * @return Interpolated value.
+     */
+    static int interpolate(int start, int end, float fraction) {
+        return start + (int) ((end - start) * fraction);
+    }
+
+    /**
+     * Compute scroll along one axis which brings child to the camera. Camera is a child-sized
+     * window whose center is at {@code offsetFraction} of parent's size.
+     *
+     * @param parentStart Start of parent's visible area (after padding).
+     * @param parentEnd End of parent's visible area (before padding).
+     * @param childStart Child's start.
+     * @param childEnd Child's end.
+     * @param offsetFraction Camera offset fraction.
+     * @param favorEnd True if end side should be favored over start side, e.g. for horizontal
+     *                 axis in RTL layout.
+     * @return Scroll distance, 0 if child is already at the camera.
+     */
+    static int computeCameraScroll(int parentStart, int parentEnd, int childStart, int childEnd,
+            float offsetFraction, boolean favorEnd) {
+        final int cameraCenter = (int) ((parentEnd + parentStart) * offsetFraction);
+        final int childHalfSize = (int) Math.ceil((childEnd - childStart) * 0.5);
+        final int cameraStart = cameraCenter - childHalfSize;
+        final int cameraEnd = cameraCenter + childHalfSize;
+
+        final int offScreenStart = Math.min(0, childStart - cameraStart);
+        final int offScreenEnd = Math.max(0, childEnd - cameraEnd);
+
+        // Favor the "start" side over the end when bringing one side or the other of a large
+        // rect into view. If we decide to bring in end because start is already visible,
+        // limit the scroll such that start won't go out of bounds.
+        if (favorEnd) {
+            return offScreenEnd != 0 ? offScreenEnd
+                    : Math.max(offScreenStart, childEnd - parentEnd);
+        } else {
+            return offScreenStart != 0 ? offScreenStart
+                    : Math.min(childStart - parentStart, offScreenEnd);
+        }
+    }
+
+    /**
+     * Compute minimal scroll along one axis which brings child into view. Child which is
+     * larger than parent and is already partially visible is left in place, otherwise its
+     * start is brought into view.
+     *
+     * @param parentStart Start of parent's visible area (after padding).
+     * @param parentEnd End of parent's visible area (before padding).
+     * @param childStart Child's start.
+     * @param childEnd Child's end.
+     * @return Scroll distance, 0 if child is already visible.
+     */
+    static int computeVisibleScroll(int parentStart, int parentEnd, int childStart,
+            int childEnd) {
+        if (childEnd - childStart > parentEnd - parentStart) {
+            boolean visible = childEnd > parentStart && childStart < parentEnd;
+            return visible ? 0 : childStart - parentStart;
+        }
+
+        if (childStart < parentStart) {
+            return childStart - parentStart;
+        } else if (childEnd > parentEnd) {
+            return childEnd - parentEnd;
+        }
+
+        return 0;
+    }
+
+    /**
+     * Compute line of uniform grid which contains passed coordinate along orientation axis.
+     *
+     * @param anchorLine Line of some laid out item.
+     * @param anchorStart Start of that item along orientation axis.
+     * @param lineSize Size of one line, must be positive.
+     * @param coordinate Coordinate to find line for.
+     * @param lineCount Number of lines.
+     * @return Line clamped to [0; lineCount).
+     */
+    static int computeAlignedLine(int anchorLine, int anchorStart, int lineSize, int coordinate,
+            int lineCount) {
+        int delta = coordinate - anchorStart;
+        // Round toward negative infinity so coordinates before anchor get previous lines
+        int lineOffset = delta >= 0 ? delta / lineSize : -((lineSize - 1 - delta) / lineSize);
+        return Math.max(0, Math.min(lineCount - 1, anchorLine + lineOffset));
+    }
+
+    /**
+     * Map joystick axis value to scroll velocity.
+     *
+     * @param axisValue Axis value in [-1; 1].
+     * @param deadZone Absolute axis value at and below which stick is released, in [0; 1).
+     * @param curve Exponent applied to deflection beyond dead zone, 1 is linear.
+     * @param maxVelocity Velocity at full deflection.
+     * @return Signed velocity, 0 within dead zone.
+     */
+    static float computeJoystickVelocity(float axisValue, float deadZone, float curve,
+            float maxVelocity) {
+        float magnitude = Math.abs(axisValue);
+        if (magnitude <= deadZone) {
+            return 0;
+        }
+
+        float deflection = Math.min(1f, (magnitude - deadZone) / (1f - deadZone));
+        float velocity = (float) Math.pow(deflection, curve) * maxVelocity;
+        return axisValue < 0 ? -velocity : velocity;
+    }
+
+    /**
+     * Compute span count which fits into passed size.
+     *
+     * @param size Size of the list across its orientation.
+     * @param spanSize Size of one span, must be positive.
+     * @return Span count, at least 1.
+     */
+    static int computeAutoFitSpanCount(int size, int spanSize) {
+        return Math.max(1, size / spanSize);
+    }
+
+    /**
+     * Compute position to jump to when circular navigation wraps around.
+     *
+     * @param step 1 if navigation goes toward the end along orientation, -1 if toward
+     *             the beginning, 0 if across orientation.
+     * @param itemCount Number of items.
+     * @return Position to jump to or {@link #NO_POSITION} if navigation doesn't wrap.
+     */
+    static int computeCircularJumpTarget(int step, int itemCount) {
+        if (itemCount == 0) {
+            return NO_POSITION;
+        }
+
+        if (step > 0) {
+            return 0;
+        } else if (step < 0) {
+            return itemCount - 1;
+        }
+
+        return NO_POSITION;
+    }
+
+    /**
+     * Compute where item moves after insertion.
+     *
+     * @param position Item's position. {@link #NO_POSITION} stays as is.
+     * @param positionStart Position of the first inserted item.
+     * @param itemCount Number of inserted items.
+     * @return New item's position.
+     */
+    static int positionAfterInsert(int position, int positionStart, int itemCount) {
+        if (position != NO_POSITION && position >= positionStart) {
+            return position + itemCount;
+        }
+
+        return position;
+    }
+
+    /**
+     * Compute where item moves after removal. Removed item is replaced by the first item
+     * after removed range.
+     *
+     * @param position Item's position. {@link #NO_POSITION} stays as is.
+     * @param positionStart Position of the first removed item.
+     * @param itemCount Number of removed items.
+     * @return New item's position.
+     */
+    static int positionAfterRemove(int position, int positionStart, int itemCount) {
+        if (position == NO_POSITION || position < positionStart) {
+            return position;
+        }
+
+        return position < positionStart + itemCount ? positionStart : position - itemCount;
+    }
+
+    /**
+     * Compute where item moves after moving some range of items.
+     *
+     * @param position Item's position. {@link #NO_POSITION} stays as is.
+     * @param fromPosition Previous position of the first moved item.
+     * @param toPosition New position of the first moved item.
+     * @param itemCount Number of moved items.
+     * @return New item's position.
+     */
+    static int positionAfterMove(int position, int fromPosition, int toPosition, int itemCount) {
+        if (position == NO_POSITION) {
+            return position;
+        }
+
+        if (position >= fromPosition && position < fromPosition + itemCount) {
+            return position - fromPosition + toPosition;
+        }
+
+        if (fromPosition < toPosition) {
+            if (position >= fromPosition + itemCount && position < toPosition + itemCount) {
+                return position - itemCount;
+            }
+        } else if (position >= toPosition && position < fromPosition) {
+            return position + itemCount;
+        }
+
+        return position;
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright 2016 Vsevolod Ganin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ganin.darv;
+
+import android.support.annotation.NonNull;
+import android.view.KeyEvent;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Records key events reaching {@link DpadAwareRecyclerView} together with focused position and
+ * adapter size. Records have fixed size and are kept in a ring buffer, so recording never
+ * allocates and only the latest events are kept. Recording can be saved with
+ * {@link #writeTo(OutputStream)}, e.g. attached to a bug report, and played back with
+ * {@link NavigationReplayer}.
+ *
+ * <p>Must be used on the main thread.
+ *
+ * @see DpadAwareRecyclerView#setNavigationRecorder(NavigationRecorder)
+ */
+public final class NavigationRecorder {
+
+    private static final int MAGIC = 0x44415256; // "DARV"
+    private static final int VERSION = 1;
+
+    /*
+       Record layout, big-endian:
+       event time (8), down time (8), key code (4), focused position (4), item count (4),
+       repeat count (2), action (1), reserved (1).
+     */
+    private static final int RECORD_SIZE = 32;
+    private static final int OFFSET_EVENT_TIME = 0;
+    private static final int OFFSET_DOWN_TIME = 8;
+    private static final int OFFSET_KEY_CODE = 16;
+    private static final int OFFSET_FOCUSED_POSITION = 20;
+    private static final int OFFSET_ITEM_COUNT = 24;
+    private static final int OFFSET_REPEAT_COUNT = 28;
+    private static final int OFFSET_ACTION = 30;
+
+    /**
+     * Upper bound of record count accepted by {@link #readFrom(InputStream)}, 32 MiB of records.
+     */
+    private static final int MAX_READ_RECORD_COUNT = 1 << 20;
+
+    private final byte[] mBuffer;
+    private final int mCapacity;
+
+    /**
+     * Index of the slot next record is written to.
+     */
+    private int mNext = 0;
+    private int mCount = 0;
+
+    /**
+     * Create recorder.
+     *
+     * @param capacity Maximum number of kept records. Older records are overwritten.
+     */
+    public NavigationRecorder(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be > 0");
+        }
+
+        mCapacity = capacity;
+        mBuffer = new byte[capacity * RECORD_SIZE];
+    }
+
+    /**
+     * Read recording previously saved with {@link #writeTo(OutputStream)}.
+     *
+     * @param in Input stream. It is not closed.
+     * @return Recorder holding read records.
+     * @throws IOException if stream is not a recording or can't be read.
+     */
+    @NonNull
+    public static NavigationRecorder readFrom(@NonNull InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a navigation recording");
+        }
+
+        int version = data.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported recording version " + version);
+        }
+
+        int count = data.readInt();
+        if (count < 0 || count > MAX_READ_RECORD_COUNT) {
+            throw new IOException("Invalid record count " + count);
+        }
+
+        NavigationRecorder recorder = new NavigationRecorder(Math.max(1, count));
+        data.readFully(recorder.mBuffer, 0, count * RECORD_SIZE);
+        recorder.mCount = count;
+        recorder.mNext = count % recorder.mCapacity;
+        return recorder;
+    }
+
+    /**
+     * Save records, oldest first.
+     *
+     * @param out Output stream. It is not closed.
+     * @throws IOException if stream can't be written.
+     */
+    public void writeTo(@NonNull OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(mCount);
+
+        // Oldest record is at mNext once buffer wrapped around
+        int first = mCount == mCapacity ? mNext : 0;
+        int tail = Math.min(mCount, mCapacity - first);
+        data.write(mBuffer, first * RECORD_SIZE, tail * RECORD_SIZE);
+        data.write(mBuffer, 0, (mCount - tail) * RECORD_SIZE);
+        data.flush();
+    }
+
+    /**
+     * @return Number of kept records.
+     */
+    public int getRecordCount() {
+        return mCount;
+    }
+
+    /**
+     * Drop all records.
+     */
+    public void clear() {
+        mNext = 0;
+        mCount = 0;
+    }
+
+    /**
+     * @param index Record index, 0 is the oldest record.
+     * @return Key event's time in {@link android.os.SystemClock#uptimeMillis()} base.
+     */
+    public long getEventTime(int index) {
+        return readLong(offsetOf(index) + OFFSET_EVENT_TIME);
+    }
+
+    /**
+     * @param index Record index, 0 is the oldest record.
+     * @return Key event's down time in {@link android.os.SystemClock#uptimeMillis()} base.
+     */
+    public long getDownTime(int index) {
+        return readLong(offsetOf(index) + OFFSET_DOWN_TIME);
+    }
+
+    /**
+     * @param index Record index, 0 is the oldest record.
+     * @return Key event's action.
+     */
+    public int getAction(int index) {
+        return mBuffer[offsetOf(index) + OFFSET_ACTION];
+    }
+
+    /**
+     * @param index Record index, 0 is the oldest record.
+     * @return Key event's key code.
+     */
+    public int getKeyCode(int index) {
+        return readInt(offsetOf(index) + OFFSET_KEY_CODE);
+    }
+
+    /**
+     * @param index Record index, 0 is the oldest record.
+     * @return Key event's repeat count.
+     */
+    public int getRepeatCount(int index) {
+        int offset = offsetOf(index) + OFFSET_REPEAT_COUNT;
+        return ((mBuffer[offset] & 0xff) << 8) | (mBuffer[offset + 1] & 0xff);
+    }
+
+    /**
+     * @param index Record index, 0 is the oldest record.
+     * @return Adapter position focused when event arrived or
+     * {@link android.support.v7.widget.RecyclerView#NO_POSITION}.
+     */
+    public int getFocusedPosition(int index) {
+        return readInt(offsetOf(index) + OFFSET_FOCUSED_POSITION);
+    }
+
+    /**
+     * @param index Record index, 0 is the oldest record.
+     * @return Adapter item count when event arrived.
+     */
+    public int getItemCount(int index) {
+        return readInt(offsetOf(index) + OFFSET_ITEM_COUNT);
+    }
+
+    void record(@NonNull KeyEvent event, int focusedPosition, int itemCount) {
+        record(event.getEventTime(), event.getDownTime(), event.getAction(), event.getKeyCode(),
+                event.getRepeatCount(), focusedPosition, itemCount);
+    }
+
+    /**
+     * Record event fields. Kept apart from {@link KeyEvent} so recording can be tested on
+     * plain JVM.
+     */
+    void record(long eventTime, long downTime, int action, int keyCode, int repeatCount,
+            int focusedPosition, int itemCount) {
+        int offset = mNext * RECORD_SIZE;
+        writeLong(offset + OFFSET_EVENT_TIME, eventTime);
+        writeLong(offset + OFFSET_DOWN_TIME, downTime);
+        writeInt(offset + OFFSET_KEY_CODE, keyCode);
+        writeInt(offset + OFFSET_FOCUSED_POSITION, focusedPosition);
+        writeInt(offset + OFFSET_ITEM_COUNT, itemCount);
+
+        repeatCount = Math.min(repeatCount, 0xffff);
+        mBuffer[offset + OFFSET_REPEAT_COUNT] = (byte) (repeatCount >>> 8);
+        mBuffer[offset + OFFSET_REPEAT_COUNT + 1] = (byte) repeatCount;
+        mBuffer[offset + OFFSET_ACTION] = (byte) action;
+
+        mNext = (mNext + 1) % mCapacity;
+        mCount = Math.min(mCount + 1, mCapacity);
+    }
+
+    private int offsetOf(int index) {
+        if (index < 0 || index >= mCount) {
+            throw new IndexOutOfBoundsException("Passed index is not in valid range which is"
+                    + " [0; " + mCount + ").");
+        }
+
+        int first = mCount == mCapacity ? mNext : 0;
+        return ((first + index) % mCapacity) * RECORD_SIZE;
+    }
+
+    private int readInt(int offset) {
+        return ((mBuffer[offset] & 0xff) << 24)
+                | ((mBuffer[offset + 1] & 0xff) << 16)
+                | ((mBuffer[offset + 2] & 0xff) << 8)
+                | (mBuffer[offset + 3] & 0xff);
+    }
+
+    private long readLong(int offset) {
+        return ((long) readInt(offset) << 32) | (readInt(offset + 4) & 0xffffffffL);
+    }
+
+    private void writeInt(int offset, int value) {
+        mBuffer[offset] = (byte) (value >>> 24);
+        mBuffer[offset + 1] = (byte) (value >>> 16);
+        mBuffer[offset + 2] = (byte) (value >>> 8);
+        mBuffer[offset + 3] = (byte) value;
+    }
+
+    private void writeLong(int offset, long value) {
+        writeInt(offset, (int) (value >>> 32));
+        writeInt(offset + 4, (int) value);
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2016 Vsevolod Ganin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ganin.darv;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.view.KeyEvent;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import static android.support.v7.widget.RecyclerView.NO_POSITION;
+
+/**
+ * Plays recording made by {@link NavigationRecorder} back through
+ * {@link DpadAwareRecyclerView#dispatchKeyEvent(KeyEvent)} keeping original intervals between
+ * events. Events are scheduled on the main looper, so under Robolectric replay advances with
+ * looper's clock.
+ *
+ * <p>Key events dispatched to a view directly don't move focus the way they do when they come
+ * from the window, so replayer moves focus itself if D-pad event isn't consumed.
+ */
+public final class NavigationReplayer {
+
+    /**
+     * Interface definition for a callback to be invoked when replay is over.
+     */
+    public interface OnReplayFinishedListener {
+        /**
+         * Will be called after the last recorded event was dispatched.
+         *
+         * @param replayer Replayer which finished
+         */
+        void onReplayFinished(NavigationReplayer replayer);
+    }
+
+    private final DpadAwareRecyclerView mList;
+    private final NavigationRecorder mRecording;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    @Nullable
+    private OnReplayFinishedListener mOnReplayFinishedListener;
+
+    private int mNextIndex = 0;
+    private long mStartUptime;
+    private boolean mRunning = false;
+    private boolean mWaitingForLayout = false;
+
+    private final Runnable mDispatchNext = new Runnable() {
+        @Override
+        public void run() {
+            dispatchNext();
+        }
+    };
+
+    /**
+     * Starts dispatching once list has laid out initially selected item.
+     */
+    private final ViewTreeObserver.OnGlobalLayoutListener mStartOnLayout =
+            new ViewTreeObserver.OnGlobalLayoutListener() {
+                @Override
+                public void onGlobalLayout() {
+                    stopWaitingForLayout();
+                    startDispatching();
+                }
+            };
+
+    /**
+     * Create replayer.
+     *
+     * @param list List to feed events to.
+     * @param recording Recording to play.
+     */
+    public NavigationReplayer(@NonNull DpadAwareRecyclerView list,
+            @NonNull NavigationRecorder recording) {
+        mList = list;
+        mRecording = recording;
+    }
+
+    public void setOnReplayFinishedListener(@Nullable OnReplayFinishedListener listener) {
+        mOnReplayFinishedListener = listener;
+    }
+
+    /**
+     * Start replay. Item which was focused when recording started is selected first and the
+     * first event is dispatched after list has laid it out.
+     */
+    public void start() {
+        stop();
+
+        if (mRecording.getRecordCount() == 0) {
+            finish();
+            return;
+        }
+
+        mRunning = true;
+        mNextIndex = 0;
+
+        int position = mRecording.getFocusedPosition(0);
+        if (position != NO_POSITION && position != mList.getSelectedItemPosition()) {
+            // Selection lands on next layout pass only
+            mList.setSelection(position);
+            mWaitingForLayout = true;
+            mList.getViewTreeObserver().addOnGlobalLayoutListener(mStartOnLayout);
+        } else {
+            startDispatching();
+        }
+    }
+
+    /**
+     * Stop replay. Events which are already dispatched are not undone.
+     */
+    public void stop() {
+        mHandler.removeCallbacks(mDispatchNext);
+        stopWaitingForLayout();
+        mRunning = false;
+    }
+
+    private void startDispatching() {
+        mStartUptime = SystemClock.uptimeMillis();
+        scheduleNext();
+    }
+
+    private void stopWaitingForLayout() {
+        if (mWaitingForLayout) {
+            mWaitingForLayout = false;
+            mList.getViewTreeObserver().removeOnGlobalLayoutListener(mStartOnLayout);
+        }
+    }
+
+    public boolean isRunning() {
+        return mRunning;
+    }
+
+    private void scheduleNext() {
+        long offset = mRecording.getEventTime(mNextIndex) - mRecording.getEventTime(0);
+        mHandler.postAtTime(mDispatchNext, mStartUptime + offset);
+    }
+
+    private void dispatchNext() {
+        int index = mNextIndex++;
+
+        // Shift times so list sees the same intervals as during recording
+        long shift = mStartUptime - mRecording.getEventTime(0);
+        KeyEvent event = new KeyEvent(
+                mRecording.getDownTime(index) + shift,
+                mRecording.getEventTime(index) + shift,
+                mRecording.getAction(index),
+                mRecording.getKeyCode(index),
+                mRecording.getRepeatCount(index));
+
+        if (!mList.dispatchKeyEvent(event) && event.getAction() == KeyEvent.ACTION_DOWN) {
+            moveFocus(event.getKeyCode());
+        }
+
+        if (mNextIndex < mRecording.getRecordCount()) {
+            scheduleNext();
+        } else {
+            mRunning = false;
+            finish();
+        }
+    }
+
+    private void moveFocus(int keyCode) {
+        int direction;
+        switch (keyCode) {
+            case KeyEvent.KEYCODE_DPAD_UP:
+                direction = View.FOCUS_UP;
+                break;
+            case KeyEvent.KEYCODE_DPAD_DOWN:
+                direction = View.FOCUS_DOWN;
+                break;
+            case KeyEvent.KEYCODE_DPAD_LEFT:
+                direction = View.FOCUS_LEFT;
+                break;
+            case KeyEvent.KEYCODE_DPAD_RIGHT:
+                direction = View.FOCUS_RIGHT;
+                break;
+            default:
+                return;
+        }
+
+        View focused = mList.findFocus();
+        if (focused != null) {
+            View next = focused.focusSearch(direction);
+            if (next != null) {
+                next.requestFocus(direction);
+            }
+        }
+    }
+
+    private void finish() {
+        if (mOnReplayFinishedListener != null) {
+            mOnReplayFinishedListener.onReplayFinished(this);
+        }
+    }
+}
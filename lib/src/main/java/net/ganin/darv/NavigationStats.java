@@ -0,0 +1,73 @@
+/*
+ * Copyright 2016 Vsevolod Ganin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ganin.darv;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Navigation metrics collected by {@link DpadAwareRecyclerView} when
+ * {@link DpadAwareRecyclerView#setNavigationStatsEnabled(boolean) enabled}.
+ *
+ * <p>Must be read on the main thread.
+ */
+public final class NavigationStats {
+
+    /* 1 ms buckets up to 1 s is enough to tell a frame or two apart */
+    private static final int LATENCY_BUCKET_WIDTH = 1;
+    private static final int LATENCY_BUCKET_COUNT = 1000;
+
+    /* Frames longer than 250 ms are counted in the last bucket */
+    private static final int FRAME_BUCKET_WIDTH = 1;
+    private static final int FRAME_BUCKET_COUNT = 250;
+
+    private final LatencyHistogram mSelectionLatency =
+            new LatencyHistogram(LATENCY_BUCKET_WIDTH, LATENCY_BUCKET_COUNT);
+    private final LatencyHistogram mFrameDurations =
+            new LatencyHistogram(FRAME_BUCKET_WIDTH, FRAME_BUCKET_COUNT);
+
+    NavigationStats() {
+    }
+
+    /**
+     * Gets histogram of time from D-pad key down to selector arriving at newly selected item.
+     * Presses overtaken by the next press before selector arrived are not counted.
+     *
+     * @return Selection latency histogram.
+     */
+    @NonNull
+    public LatencyHistogram getSelectionLatency() {
+        return mSelectionLatency;
+    }
+
+    /**
+     * Gets histogram of frame durations observed while user navigates or list scrolls.
+     *
+     * @return Frame duration histogram.
+     */
+    @NonNull
+    public LatencyHistogram getFrameDurations() {
+        return mFrameDurations;
+    }
+
+    /**
+     * Forget all collected metrics.
+     */
+    public void reset() {
+        mSelectionLatency.reset();
+        mFrameDurations.reset();
+    }
+}
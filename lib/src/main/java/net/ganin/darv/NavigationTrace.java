@@ -0,0 +1,214 @@
+/*
+ * Copyright 2016 Vsevolod Ganin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ganin.darv;
+
+import android.support.annotation.NonNull;
+import android.support.v4.os.TraceCompat;
+
+import java.lang.reflect.Method;
+
+/**
+ * Systrace sections around library's hot paths, e.g. "DARV#dispatchKeyEvent" or
+ * "ExtGLM#onLayoutChildren". Sections are not emitted until tracing is enabled here, so
+ * disabled tracing costs a single static field read.
+ *
+ * <p>Besides ordinary sections an async section "DARV:navigation" spans every D-pad key down
+ * till selection lands.
+ */
+public final class NavigationTrace {
+
+    /**
+     * Value of hidden {@code Trace.TRACE_TAG_APP}.
+     */
+    private static final long TRACE_TAG_APP = 1L << 12;
+
+    static final String NAVIGATION_SECTION = "DARV:navigation";
+
+    /**
+     * Cookies cycle through values which {@link Integer#valueOf(int)} is guaranteed to cache,
+     * so passing them reflectively doesn't box. Only one navigation section is open at a time.
+     */
+    private static final int MAX_COOKIE = 127;
+
+    private static boolean sEnabled = false;
+    private static int sNextCookie = 1;
+
+    /*
+       Hidden async API, resolved on first use. It's only called on the main thread, so
+       argument arrays are reused instead of varargs allocated on every call.
+     */
+    private static boolean sAsyncResolved = false;
+    private static Method sIsTagEnabled;
+    private static Method sAsyncTraceBegin;
+    private static Method sAsyncTraceEnd;
+    private static final Object[] sTagArgs = { TRACE_TAG_APP };
+    private static final Object[] sAsyncArgs = { TRACE_TAG_APP, null, null };
+
+    private NavigationTrace() {
+    }
+
+    /**
+     * Enable or disable trace sections of all library components.
+     *
+     * @param enabled true to emit trace sections
+     */
+    public static void setEnabled(boolean enabled) {
+        sEnabled = enabled;
+    }
+
+    /**
+     * @return true if trace sections are emitted
+     */
+    public static boolean isEnabled() {
+        return sEnabled;
+    }
+
+    /**
+     * Begin trace section. Usage:
+     * <pre>
+     * boolean traced = NavigationTrace.beginSection("DARV#onLayout");
+     * try {
+     *     ...
+     * } finally {
+     *     NavigationTrace.endSection(traced);
+     * }
+     * </pre>
+     *
+     * @param sectionName section name
+     * @return true if section was begun and must be ended
+     */
+    static boolean beginSection(@NonNull String sectionName) {
+        if (sEnabled) {
+            TraceCompat.beginSection(sectionName);
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * End trace section. Result of {@link #beginSection(String)} is passed rather than checked
+     * again so sections stay paired if tracing is toggled in between.
+     *
+     * @param traced value returned by {@link #beginSection(String)}
+     */
+    static void endSection(boolean traced) {
+        if (traced) {
+            TraceCompat.endSection();
+        }
+    }
+
+    /**
+     * @return non-zero cookie for async section, unique among recently begun ones
+     */
+    private static int nextCookie() {
+        int cookie = sNextCookie++;
+        if (sNextCookie > MAX_COOKIE) {
+            sNextCookie = 1;
+        }
+        return cookie;
+    }
+
+    /**
+     * Begin async section if tracing is enabled here and app sections are being captured.
+     *
+     * @param sectionName section name
+     * @return cookie to pass to {@link #endAsyncSection(String, int)} or 0 if section wasn't
+     * begun
+     */
+    static int beginAsyncSection(@NonNull String sectionName) {
+        if (!sEnabled || !resolveAsync() || !isTagEnabled()) {
+            return 0;
+        }
+
+        int cookie = nextCookie();
+        invokeAsync(sAsyncTraceBegin, sectionName, cookie);
+        return cookie;
+    }
+
+    /**
+     * End async section. Cookie is checked rather than enabled state so sections stay paired
+     * if tracing is toggled in between.
+     *
+     * @param sectionName section name
+     * @param cookie value returned by {@link #beginAsyncSection(String)}
+     */
+    static void endAsyncSection(@NonNull String sectionName, int cookie) {
+        if (cookie != 0) {
+            invokeAsync(sAsyncTraceEnd, sectionName, cookie);
+        }
+    }
+
+    /**
+     * @return true if async API is available
+     */
+    private static boolean resolveAsync() {
+        if (!sAsyncResolved) {
+            sAsyncResolved = true;
+            try {
+                Class<?> trace = Class.forName("android.os.Trace");
+                sAsyncTraceBegin = trace.getMethod("asyncTraceBegin",
+                        long.class, String.class, int.class);
+                sAsyncTraceEnd = trace.getMethod("asyncTraceEnd",
+                        long.class, String.class, int.class);
+            } catch (Exception e) {
+                // Async sections are simply not emitted
+                sAsyncTraceBegin = null;
+                sAsyncTraceEnd = null;
+            }
+
+            try {
+                sIsTagEnabled = Class.forName("android.os.Trace")
+                        .getMethod("isTagEnabled", long.class);
+            } catch (Exception e) {
+                // Assume app tag is captured
+                sIsTagEnabled = null;
+            }
+        }
+
+        return sAsyncTraceBegin != null && sAsyncTraceEnd != null;
+    }
+
+    private static boolean isTagEnabled() {
+        if (sIsTagEnabled == null) {
+            return true;
+        }
+
+        try {
+            return Boolean.TRUE.equals(sIsTagEnabled.invoke(null, sTagArgs));
+        } catch (Exception e) {
+            return true;
+        }
+    }
+
+    private static void invokeAsync(Method method, String sectionName, int cookie) {
+        if (method == null) {
+            return;
+        }
+
+        sAsyncArgs[1] = sectionName;
+        sAsyncArgs[2] = cookie;
+        try {
+            method.invoke(null, sAsyncArgs);
+        } catch (Exception e) {
+            // Ignore, tracing must never break navigation
+        } finally {
+            sAsyncArgs[1] = null;
+            sAsyncArgs[2] = null;
+        }
+    }
+}
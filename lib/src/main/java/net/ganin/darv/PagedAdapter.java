@@ -0,0 +1,107 @@
+/*
+ * Copyright 2016 Vsevolod Ganin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ganin.darv;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.widget.RecyclerView;
+
+/**
+ * Adapter over {@link PagedList}. When set to {@link DpadAwareRecyclerView}, pages are loaded
+ * around the item user navigates to, i.e. loading is driven by navigation distance rather than
+ * by scrolled pixels. Binding never triggers loading.
+ *
+ * @param <T> Item type.
+ * @param <VH> View holder type.
+ */
+public abstract class PagedAdapter<T, VH extends RecyclerView.ViewHolder>
+        extends RecyclerView.Adapter<VH> implements PagedList.Callback {
+
+    private final PagedList<T> mList;
+
+    public PagedAdapter(@NonNull PagedList<T> list) {
+        mList = list;
+        mList.setCallback(this);
+    }
+
+    @NonNull
+    public PagedList<T> getList() {
+        return mList;
+    }
+
+    /**
+     * Gets item at passed position.
+     *
+     * @param position Item position.
+     * @return Item or null if it is a placeholder.
+     */
+    @Nullable
+    public T getItem(int position) {
+        return mList.get(position);
+    }
+
+    /**
+     * Bind view holder to item or to placeholder.
+     *
+     * @param holder View holder.
+     * @param position Item position.
+     * @param item Item or null if it is not loaded yet.
+     */
+    public abstract void onBindItem(VH holder, int position, @Nullable T item);
+
+    @Override
+    public void onBindViewHolder(VH holder, int position) {
+        onBindItem(holder, position, mList.get(position));
+    }
+
+    @Override
+    public int getItemCount() {
+        return mList.size();
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+
+        // Nothing is focused yet, load what is going to be seen first
+        mList.loadAround(0);
+    }
+
+    /**
+     * Called by {@link DpadAwareRecyclerView} when user navigates to some item.
+     *
+     * @param position Item position.
+     */
+    void onNavigated(int position) {
+        mList.loadAround(position);
+    }
+
+    @Override
+    public void onItemRangeLoaded(int positionStart, int itemCount) {
+        notifyItemRangeChanged(positionStart, itemCount);
+    }
+
+    @Override
+    public void onItemRangeInserted(int positionStart, int itemCount) {
+        notifyItemRangeInserted(positionStart, itemCount);
+    }
+
+    @Override
+    public void onChanged() {
+        notifyDataSetChanged();
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2016 Vsevolod Ganin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ganin.darv;
+
+import android.support.annotation.NonNull;
+
+import java.util.List;
+
+/**
+ * Source of items that are loaded page by page into {@link PagedList}.
+ *
+ * @param <T> Item type.
+ */
+public interface PagedDataSource<T> {
+
+    /**
+     * Gets number of items. Called on the main thread when {@link PagedList} is created or
+     * invalidated.
+     *
+     * @return Total number of items if {@link #isCountFinal()} returns true, otherwise number
+     * of items known so far (may be 0).
+     */
+    int getCount();
+
+    /**
+     * Tells whether {@link #getCount()} is the total number of items. If not, source is treated
+     * as a stream: more pages are requested when navigation gets close to the end and items
+     * are appended until source returns an incomplete page.
+     *
+     * @return True if count is final.
+     */
+    boolean isCountFinal();
+
+    /**
+     * Loads range of items. Called on loader executor's thread.
+     *
+     * <p>Failure is reported by throwing {@link RuntimeException}. {@link PagedList} catches it,
+     * keeps placeholders for the range and requests it again when navigation comes near it
+     * next time.
+     *
+     * @param startPosition Position of the first item to load.
+     * @param loadCount Number of items to load.
+     * @return Loaded items. Fewer than {@code loadCount} items means that end of data is reached.
+     */
+    @NonNull
+    List<T> loadRange(int startPosition, int loadCount);
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright 2016 Vsevolod Ganin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ganin.darv;
+
+import android.os.AsyncTask;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.SparseBooleanArray;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * List of items backed by {@link PagedDataSource}. Items are loaded page by page on background
+ * executor around the position user navigates to. Pages that are not loaded yet are represented
+ * by placeholders (null items). Number of pages kept in memory is bounded: least recently used
+ * pages which are far away from navigation position are evicted first.
+ *
+ * <p>All methods must be called on the main thread.
+ *
+ * @param <T> Item type.
+ */
+public class PagedList<T> {
+
+    /**
+     * Callback for changes of {@link PagedList}'s content.
+     */
+    public interface Callback {
+        /**
+         * Placeholders in passed range were replaced by loaded items.
+         *
+         * @param positionStart Position of the first loaded item.
+         * @param itemCount Number of loaded items.
+         */
+        void onItemRangeLoaded(int positionStart, int itemCount);
+
+        /**
+         * Items were appended to the end of streaming source.
+         *
+         * @param positionStart Position of the first appended item.
+         * @param itemCount Number of appended items.
+         */
+        void onItemRangeInserted(int positionStart, int itemCount);
+
+        /**
+         * Whole list was invalidated.
+         */
+        void onChanged();
+    }
+
+    private final PagedDataSource<T> mSource;
+    private final int mPageSize;
+    private final int mMaxPages;
+    private final Executor mExecutor;
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * Loaded pages in access order, i.e. least recently used page goes first.
+     */
+    private final LinkedHashMap<Integer, List<T>> mPages =
+            new LinkedHashMap<>(16, 0.75f, true);
+    private final SparseBooleanArray mLoadingPages = new SparseBooleanArray();
+
+    @Nullable
+    private Callback mCallback;
+
+    private int mCount;
+    private boolean mCountFinal;
+    private int mPrefetchDistance;
+    private int mAnchorPage = 0;
+
+    /**
+     * Incremented on invalidation so pages loaded for previous data are dropped.
+     */
+    private int mGeneration = 0;
+
+    /**
+     * Create list which loads pages on {@link AsyncTask#THREAD_POOL_EXECUTOR}.
+     *
+     * @param source Data source.
+     * @param pageSize Number of items in one page.
+     * @param maxPages Maximum number of pages kept in memory.
+     */
+    public PagedList(@NonNull PagedDataSource<T> source, int pageSize, int maxPages) {
+        this(source, pageSize, maxPages, AsyncTask.THREAD_POOL_EXECUTOR);
+    }
+
+    /**
+     * Create list.
+     *
+     * @param source Data source.
+     * @param pageSize Number of items in one page.
+     * @param maxPages Maximum number of pages kept in memory.
+     * @param executor Executor to load pages on.
+     */
+    public PagedList(@NonNull PagedDataSource<T> source, int pageSize, int maxPages,
+            @NonNull Executor executor) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be > 0");
+        }
+
+        if (maxPages < 1) {
+            throw new IllegalArgumentException("Max pages must be > 0");
+        }
+
+        mSource = source;
+        mPageSize = pageSize;
+        mMaxPages = maxPages;
+        mExecutor = executor;
+        mPrefetchDistance = pageSize;
+        mCount = source.getCount();
+        mCountFinal = source.isCountFinal();
+    }
+
+    public void setCallback(@Nullable Callback callback) {
+        mCallback = callback;
+    }
+
+    /**
+     * Set number of items before and after navigation position that should be loaded.
+     * Default is one page.
+     *
+     * @param prefetchDistance Distance in items.
+     */
+    public void setPrefetchDistance(int prefetchDistance) {
+        mPrefetchDistance = Math.max(0, prefetchDistance);
+    }
+
+    public int getPrefetchDistance() {
+        return mPrefetchDistance;
+    }
+
+    /**
+     * @return Number of items including placeholders.
+     */
+    public int size() {
+        return mCount;
+    }
+
+    /**
+     * Gets item without triggering any loading.
+     *
+     * @param position Item position.
+     * @return Item or null if it is not loaded yet.
+     */
+    @Nullable
+    public T get(int position) {
+        List<T> page = mPages.get(position / mPageSize);
+        int offset = position % mPageSize;
+        return page != null && offset < page.size() ? page.get(offset) : null;
+    }
+
+    /**
+     * Load pages within prefetch distance of passed position. For streaming source also
+     * requests next portion of items if the end is within prefetch distance.
+     *
+     * @param position Position user navigated to.
+     */
+    public void loadAround(int position) {
+        mAnchorPage = position / mPageSize;
+
+        int lastPosition = mCountFinal ? mCount - 1 : mCount;
+        if (lastPosition < 0) {
+            return;
+        }
+
+        int firstPage = Math.max(0, position - mPrefetchDistance) / mPageSize;
+        int lastPage = Math.min(lastPosition, position + mPrefetchDistance) / mPageSize;
+
+        for (int page = firstPage; page <= lastPage; page++) {
+            requestPage(page);
+        }
+    }
+
+    /**
+     * Drop all pages and re-read count from source.
+     */
+    public void invalidate() {
+        mGeneration++;
+        mPages.clear();
+        mLoadingPages.clear();
+        mCount = mSource.getCount();
+        mCountFinal = mSource.isCountFinal();
+
+        if (mCallback != null) {
+            mCallback.onChanged();
+        }
+    }
+
+    private void requestPage(final int page) {
+        // Lookup also marks page as recently used
+        if (mPages.get(page) != null || mLoadingPages.get(page)) {
+            return;
+        }
+
+        mLoadingPages.put(page, true);
+
+        final int generation = mGeneration;
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final List<T> items;
+                try {
+                    items = mSource.loadRange(page * mPageSize, mPageSize);
+                } catch (RuntimeException e) {
+                    // Must not reach executor's thread, page is just requested again later
+                    mMainHandler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            onPageFailed(generation, page);
+                        }
+                    });
+                    return;
+                }
+
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        onPageLoaded(generation, page, items);
+                    }
+                });
+            }
+        });
+    }
+
+    private void onPageFailed(int generation, int page) {
+        if (generation == mGeneration) {
+            mLoadingPages.delete(page);
+        }
+    }
+
+    private void onPageLoaded(int generation, int page, @NonNull List<T> items) {
+        if (generation != mGeneration) {
+            return;
+        }
+
+        mLoadingPages.delete(page);
+        mPages.put(page, items);
+
+        int start = page * mPageSize;
+        int end = start + items.size();
+        int oldCount = mCount;
+
+        if (!mCountFinal) {
+            if (items.size() < mPageSize) {
+                // Stream is exhausted
+                mCountFinal = true;
+            }
+            mCount = Math.max(mCount, end);
+        }
+
+        if (mCallback != null) {
+            int loadedEnd = Math.min(end, oldCount);
+            if (loadedEnd > start) {
+                mCallback.onItemRangeLoaded(start, loadedEnd - start);
+            }
+            if (mCount > oldCount) {
+                mCallback.onItemRangeInserted(oldCount, mCount - oldCount);
+            }
+        }
+
+        trimPages();
+    }
+
+    /**
+     * Evict least recently used pages which lie outside of prefetch window until page limit is
+     * satisfied.
+     */
+    private void trimPages() {
+        int keepRadius = mPrefetchDistance / mPageSize + 1;
+
+        Iterator<Integer> it = mPages.keySet().iterator();
+        while (mPages.size() > mMaxPages && it.hasNext()) {
+            int page = it.next();
+            if (Math.abs(page - mAnchorPage) > keepRadius) {
+                it.remove();
+            }
+        }
+    }
+}
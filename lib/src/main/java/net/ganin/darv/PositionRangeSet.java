@@ -0,0 +1,278 @@
+/*
+ * Copyright 2016 Vsevolod Ganin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ganin.darv;
+
+import java.util.Arrays;
+
+/**
+ * Set of adapter positions stored as sorted disjoint ranges. Memory and cost of every operation
+ * depend on number of ranges rather than on number of positions, e.g. "select all" of a million
+ * items is a single range.
+ *
+ * <p>Iterate without allocations:
+ * <pre>
+ * for (int i = 0; i &lt; set.getRangeCount(); i++) {
+ *     for (int pos = set.getRangeStart(i); pos &lt; set.getRangeEnd(i); pos++) { ... }
+ * }
+ * </pre>
+ */
+public final class PositionRangeSet {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    /* Range i is [mStarts[i]; mEnds[i]). Ranges are sorted and never touch each other. */
+    private int[] mStarts = new int[INITIAL_CAPACITY];
+    private int[] mEnds = new int[INITIAL_CAPACITY];
+    private int mRangeCount = 0;
+    private int mSize = 0;
+
+    /**
+     * @return Number of positions in this set.
+     */
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * @return Number of disjoint ranges.
+     */
+    public int getRangeCount() {
+        return mRangeCount;
+    }
+
+    /**
+     * @param index Range index.
+     * @return First position of range (inclusive).
+     */
+    public int getRangeStart(int index) {
+        enforceRangeIndexBounds(index);
+        return mStarts[index];
+    }
+
+    /**
+     * @param index Range index.
+     * @return Position after the last position of range (exclusive).
+     */
+    public int getRangeEnd(int index) {
+        enforceRangeIndexBounds(index);
+        return mEnds[index];
+    }
+
+    /**
+     * @param position Adapter position.
+     * @return True if position is in this set.
+     */
+    public boolean contains(int position) {
+        int index = findRange(position);
+        return index >= 0 && position < mEnds[index];
+    }
+
+    /**
+     * Add position if it is absent, remove otherwise.
+     *
+     * @param position Adapter position.
+     * @return True if position is in the set after toggling.
+     */
+    boolean toggle(int position) {
+        if (contains(position)) {
+            removeRange(position, position + 1);
+            return false;
+        } else {
+            addRange(position, position + 1);
+            return true;
+        }
+    }
+
+    void clear() {
+        mRangeCount = 0;
+        mSize = 0;
+    }
+
+    /**
+     * Add positions [start; end).
+     */
+    void addRange(int start, int end) {
+        if (start >= end) {
+            return;
+        }
+
+        // First range which may be merged: the one that ends at or after start.
+        int first = findRange(start);
+        if (first < 0 || mEnds[first] < start) {
+            first++;
+        }
+
+        // Last range which may be merged: the one that starts at or before end.
+        int last = findRange(end);
+
+        if (first <= last) {
+            start = Math.min(start, mStarts[first]);
+            end = Math.max(end, mEnds[last]);
+            for (int i = first; i <= last; i++) {
+                mSize -= mEnds[i] - mStarts[i];
+            }
+            removeRanges(first, last - first + 1);
+        }
+
+        insertRange(first, start, end);
+        mSize += end - start;
+    }
+
+    /**
+     * Remove positions [start; end).
+     */
+    void removeRange(int start, int end) {
+        if (start >= end || mRangeCount == 0) {
+            return;
+        }
+
+        int first = findRange(start);
+        if (first < 0 || mEnds[first] <= start) {
+            first++;
+        }
+
+        int last = findRange(end - 1);
+
+        if (first > last) {
+            return;
+        }
+
+        int headStart = mStarts[first];
+        int tailEnd = mEnds[last];
+        for (int i = first; i <= last; i++) {
+            mSize -= mEnds[i] - mStarts[i];
+        }
+        removeRanges(first, last - first + 1);
+
+        // Keep parts of boundary ranges which stick out of removed range
+        int index = first;
+        if (headStart < start) {
+            insertRange(index++, headStart, start);
+            mSize += start - headStart;
+        }
+        if (tailEnd > end) {
+            insertRange(index, end, tailEnd);
+            mSize += tailEnd - end;
+        }
+    }
+
+    /**
+     * Shift positions after items were inserted. Inserted positions are not in the set.
+     */
+    void onItemRangeInserted(int positionStart, int itemCount) {
+        int index = findRange(positionStart);
+        if (index >= 0 && mStarts[index] < positionStart && positionStart < mEnds[index]) {
+            // Split range around insertion point
+            insertRange(index + 1, positionStart, mEnds[index]);
+            mEnds[index] = positionStart;
+        }
+
+        for (int i = Math.max(0, index); i < mRangeCount; i++) {
+            if (mStarts[i] >= positionStart) {
+                mStarts[i] += itemCount;
+                mEnds[i] += itemCount;
+            }
+        }
+    }
+
+    /**
+     * Drop removed positions and shift the rest.
+     */
+    void onItemRangeRemoved(int positionStart, int itemCount) {
+        removeRange(positionStart, positionStart + itemCount);
+
+        int index = findRange(positionStart - 1) + 1;
+        for (int i = index; i < mRangeCount; i++) {
+            mStarts[i] -= itemCount;
+            mEnds[i] -= itemCount;
+        }
+
+        // Ranges on both sides of removed range may touch now
+        if (index > 0 && index < mRangeCount && mEnds[index - 1] == mStarts[index]) {
+            mEnds[index - 1] = mEnds[index];
+            removeRanges(index, 1);
+        }
+    }
+
+    /**
+     * Move membership of positions along with moved items.
+     */
+    void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+        // Remember which of moved positions are in the set, relative to fromPosition
+        int first = findRange(fromPosition);
+        if (first < 0 || mEnds[first] <= fromPosition) {
+            first++;
+        }
+        int last = findRange(fromPosition + itemCount - 1);
+        int movedCount = Math.max(0, last - first + 1);
+        int[] moved = new int[movedCount * 2];
+        for (int i = 0; i < movedCount; i++) {
+            moved[i * 2] = Math.max(mStarts[first + i], fromPosition) - fromPosition;
+            moved[i * 2 + 1] = Math.min(mEnds[first + i], fromPosition + itemCount) - fromPosition;
+        }
+
+        onItemRangeRemoved(fromPosition, itemCount);
+        onItemRangeInserted(toPosition, itemCount);
+
+        for (int i = 0; i < movedCount; i++) {
+            addRange(moved[i * 2] + toPosition, moved[i * 2 + 1] + toPosition);
+        }
+    }
+
+    /**
+     * Drop positions at and after passed one, e.g. when adapter shrank.
+     */
+    void truncate(int itemCount) {
+        if (mRangeCount > 0) {
+            removeRange(itemCount, Math.max(itemCount, mEnds[mRangeCount - 1]));
+        }
+    }
+
+    /**
+     * @return Index of the last range which starts at or before position, -1 if there is none.
+     */
+    private int findRange(int position) {
+        int index = Arrays.binarySearch(mStarts, 0, mRangeCount, position);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    private void insertRange(int index, int start, int end) {
+        if (mRangeCount == mStarts.length) {
+            mStarts = Arrays.copyOf(mStarts, mRangeCount * 2);
+            mEnds = Arrays.copyOf(mEnds, mRangeCount * 2);
+        }
+
+        System.arraycopy(mStarts, index, mStarts, index + 1, mRangeCount - index);
+        System.arraycopy(mEnds, index, mEnds, index + 1, mRangeCount - index);
+        mStarts[index] = start;
+        mEnds[index] = end;
+        mRangeCount++;
+    }
+
+    private void removeRanges(int index, int count) {
+        System.arraycopy(mStarts, index + count, mStarts, index, mRangeCount - index - count);
+        System.arraycopy(mEnds, index + count, mEnds, index, mRangeCount - index - count);
+        mRangeCount -= count;
+    }
+
+    private void enforceRangeIndexBounds(int index) {
+        if (index < 0 || index >= mRangeCount) {
+            throw new IndexOutOfBoundsException("Passed index is not in valid range which is"
+                    + " [0; " + mRangeCount + ").");
+        }
+    }
+}
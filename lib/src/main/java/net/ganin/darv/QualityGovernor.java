@@ -0,0 +1,88 @@
+/*
+ * Copyright 2016 Vsevolod Ganin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ganin.darv;
+
+/**
+ * Decides quality tier of {@link DpadAwareRecyclerView} effects from frame durations observed
+ * during navigation. Frames are judged in fixed windows: a window with several janky frames
+ * steps quality down, a few clean windows in a row step it back up.
+ */
+final class QualityGovernor {
+
+    /* Frame is janky if it took longer than one and a half of 60 fps frame */
+    private static final long JANK_THRESHOLD_NANOS = 25000000L;
+    private static final int WINDOW_FRAMES = 30;
+    private static final int JANKY_FRAMES_TO_STEP_DOWN = 5;
+    private static final int CLEAN_WINDOWS_TO_STEP_UP = 4;
+
+    private final int mMaxTier;
+
+    private int mTier = 0;
+    private int mWindowFrames = 0;
+    private int mWindowJankyFrames = 0;
+    private int mCleanWindows = 0;
+
+    /**
+     * @param maxTier Lowest quality tier.
+     */
+    QualityGovernor(int maxTier) {
+        mMaxTier = maxTier;
+    }
+
+    int getTier() {
+        return mTier;
+    }
+
+    /**
+     * Account frame.
+     *
+     * @param durationNanos Frame duration.
+     * @return true if tier changed.
+     */
+    boolean onFrame(long durationNanos) {
+        mWindowFrames++;
+        if (durationNanos > JANK_THRESHOLD_NANOS) {
+            mWindowJankyFrames++;
+        }
+
+        if (mWindowFrames < WINDOW_FRAMES) {
+            return false;
+        }
+
+        int oldTier = mTier;
+        if (mWindowJankyFrames >= JANKY_FRAMES_TO_STEP_DOWN) {
+            mCleanWindows = 0;
+            mTier = Math.min(mTier + 1, mMaxTier);
+        } else if (mWindowJankyFrames > 0) {
+            mCleanWindows = 0;
+        } else if (++mCleanWindows >= CLEAN_WINDOWS_TO_STEP_UP) {
+            mCleanWindows = 0;
+            mTier = Math.max(mTier - 1, 0);
+        }
+
+        mWindowFrames = 0;
+        mWindowJankyFrames = 0;
+        return mTier != oldTier;
+    }
+
+    void reset() {
+        mTier = 0;
+        mWindowFrames = 0;
+        mWindowJankyFrames = 0;
+        mCleanWindows = 0;
+    }
+}
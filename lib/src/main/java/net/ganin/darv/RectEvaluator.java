@@ -31,10 +31,10 @@ class RectEvaluator implements TypeEvaluator<Rect> {
     @NonNull
     @Override
     public Rect evaluate(float fraction, @NonNull Rect startValue, @NonNull Rect endValue) {
-        int left = startValue.left + (int) ((endValue.left - startValue.left) * fraction);
-        int top = startValue.top + (int) ((endValue.top - startValue.top) * fraction);
-        int right = startValue.right + (int) ((endValue.right - startValue.right) * fraction);
-        int bottom = startValue.bottom + (int) ((endValue.bottom - startValue.bottom) * fraction);
+        int left = NavigationMath.interpolate(startValue.left, endValue.left, fraction);
+        int top = NavigationMath.interpolate(startValue.top, endValue.top, fraction);
+        int right = NavigationMath.interpolate(startValue.right, endValue.right, fraction);
+        int bottom = NavigationMath.interpolate(startValue.bottom, endValue.bottom, fraction);
 
         mCacheRect.set(left, top, right, bottom);
         return mCacheRect;
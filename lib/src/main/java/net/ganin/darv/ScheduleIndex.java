@@ -0,0 +1,199 @@
+/*
+ * Copyright 2016 Vsevolod Ganin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.ganin.darv;
+
+/**
+ * Per-row interval index of program guide cells. Cells of one row occupy consecutive
+ * positions, are sorted by start time and don't overlap, so both their start and end times are
+ * ascending and every lookup is a binary search within the row. Cost of lookups depends on
+ * neither number of rows nor number of cells. Kept free of Android classes so it can be
+ * benchmarked on plain JVM (see {@code benchmark} module).
+ */
+final class ScheduleIndex {
+
+    static final int NO_POSITION = NavigationMath.NO_POSITION;
+
+    private static final int[] EMPTY_ROWS = new int[] { 0 };
+    private static final long[] EMPTY_TIMES = new long[0];
+
+    /* Row r occupies positions [mRowStarts[r]; mRowStarts[r + 1]) */
+    private int[] mRowStarts = EMPTY_ROWS;
+    private long[] mStartTimes = EMPTY_TIMES;
+    private long[] mEndTimes = EMPTY_TIMES;
+    private long mMinTime;
+    private long mMaxTime;
+
+    /**
+     * Set index content. Arrays are kept by index, so they must not be modified afterwards.
+     *
+     * @param rowStarts Position of the first cell of every row followed by number of cells,
+     *                  i.e. array is one element longer than number of rows.
+     * @param startTimes Start time of every cell.
+     * @param endTimes End time of every cell.
+     * @throws IllegalArgumentException if cells of some row are not sorted or overlap.
+     */
+    void set(int[] rowStarts, long[] startTimes, long[] endTimes) {
+        if (rowStarts.length == 0 || rowStarts[rowStarts.length - 1] != startTimes.length
+                || startTimes.length != endTimes.length) {
+            throw new IllegalArgumentException("Row starts don't match number of cells");
+        }
+
+        long minTime = Long.MAX_VALUE;
+        long maxTime = Long.MIN_VALUE;
+        for (int row = 0; row < rowStarts.length - 1; row++) {
+            for (int pos = rowStarts[row]; pos < rowStarts[row + 1]; pos++) {
+                if (endTimes[pos] < startTimes[pos]
+                        || (pos > rowStarts[row] && startTimes[pos] < endTimes[pos - 1])) {
+                    throw new IllegalArgumentException("Cells of row " + row
+                            + " are not sorted by time or overlap at position " + pos);
+                }
+            }
+
+            if (rowStarts[row + 1] > rowStarts[row]) {
+                minTime = Math.min(minTime, startTimes[rowStarts[row]]);
+                maxTime = Math.max(maxTime, endTimes[rowStarts[row + 1] - 1]);
+            }
+        }
+
+        mRowStarts = rowStarts;
+        mStartTimes = startTimes;
+        mEndTimes = endTimes;
+        mMinTime = startTimes.length == 0 ? 0 : minTime;
+        mMaxTime = startTimes.length == 0 ? 0 : maxTime;
+    }
+
+    void clear() {
+        mRowStarts = EMPTY_ROWS;
+        mStartTimes = EMPTY_TIMES;
+        mEndTimes = EMPTY_TIMES;
+        mMinTime = 0;
+        mMaxTime = 0;
+    }
+
+    int getRowCount() {
+        return mRowStarts.length - 1;
+    }
+
+    int getCellCount() {
+        return mStartTimes.length;
+    }
+
+    /**
+     * @return Position of the first cell in row.
+     */
+    int getRowStart(int row) {
+        return mRowStarts[row];
+    }
+
+    /**
+     * @return Position after the last cell in row.
+     */
+    int getRowEnd(int row) {
+        return mRowStarts[row + 1];
+    }
+
+    long getStartTime(int position) {
+        return mStartTimes[position];
+    }
+
+    long getEndTime(int position) {
+        return mEndTimes[position];
+    }
+
+    /**
+     * @return Earliest start time of all cells, 0 if there are none.
+     */
+    long getMinTime() {
+        return mMinTime;
+    }
+
+    /**
+     * @return Latest end time of all cells, 0 if there are none.
+     */
+    long getMaxTime() {
+        return mMaxTime;
+    }
+
+    /**
+     * @param position Cell position.
+     * @return Row which contains cell.
+     */
+    int getRowForPosition(int position) {
+        // Last row starting at or before position. Empty rows share start with the next row,
+        // so the last one of equal starts is the row which actually contains position.
+        int low = 0;
+        int high = mRowStarts.length - 2;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (mRowStarts[mid] <= position) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param row Row index.
+     * @param time Time.
+     * @return Position of the first cell in row which ends after passed time or row end if
+     * there is none.
+     */
+    int findFirstEndingAfter(int row, long time) {
+        int low = mRowStarts[row];
+        int high = mRowStarts[row + 1];
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (mEndTimes[mid] <= time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Find cell in row which is the closest to passed time, i.e. the one running at that time
+     * or the nearest one if row has a gap there.
+     *
+     * @param row Row index.
+     * @param time Time.
+     * @return Cell position or {@link #NO_POSITION} if row is empty.
+     */
+    int findCellAt(int row, long time) {
+        int rowStart = mRowStarts[row];
+        int rowEnd = mRowStarts[row + 1];
+        if (rowStart == rowEnd) {
+            return NO_POSITION;
+        }
+
+        int pos = findFirstEndingAfter(row, time);
+        if (pos == rowEnd) {
+            return rowEnd - 1;
+        }
+
+        if (mStartTimes[pos] > time && pos > rowStart
+                && time - mEndTimes[pos - 1] < mStartTimes[pos] - time) {
+            return pos - 1;
+        }
+
+        return pos;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2016 Vsevolod Ganin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ganin.darv;
+
+import android.support.annotation.Nullable;
+
+import java.util.Arrays;
+
+import static android.support.v7.widget.RecyclerView.NO_POSITION;
+
+/**
+ * Sorted array of section start positions. All lookups are binary searches so their cost
+ * does not depend on how many items lie between sections.
+ */
+class SectionIndex {
+
+    private static final int[] EMPTY = new int[0];
+
+    private int[] mPositions = EMPTY;
+
+    /**
+     * Set section start positions.
+     *
+     * @param positions Adapter positions sorted in ascending order. Null means no sections.
+     */
+    void set(@Nullable int[] positions) {
+        mPositions = positions == null ? EMPTY : positions;
+    }
+
+    /**
+     * @return Number of sections.
+     */
+    int size() {
+        return mPositions.length;
+    }
+
+    /**
+     * @param section Section index.
+     * @return Adapter position at which section starts.
+     */
+    int getSectionStart(int section) {
+        return mPositions[section];
+    }
+
+    /**
+     * Find section which contains passed position.
+     *
+     * @param position Adapter position.
+     * @return Section index or -1 if position lies before the first section.
+     */
+    int getSectionForPosition(int position) {
+        int index = Arrays.binarySearch(mPositions, position);
+        // Negative result encodes insertion point, section is the one right before it.
+        return index >= 0 ? index : -index - 2;
+    }
+
+    /**
+     * @param position Adapter position.
+     * @return True if passed position starts some section.
+     */
+    boolean isSectionStart(int position) {
+        return Arrays.binarySearch(mPositions, position) >= 0;
+    }
+
+    /**
+     * @param position Adapter position.
+     * @return Start of the section following the one which contains passed position or
+     * {@link android.support.v7.widget.RecyclerView#NO_POSITION} if there is none.
+     */
+    int getNextSectionStart(int position) {
+        int next = getSectionForPosition(position) + 1;
+        return next < mPositions.length ? mPositions[next] : NO_POSITION;
+    }
+
+    /**
+     * @param position Adapter position.
+     * @return Start of the section preceding the one which contains passed position or
+     * {@link android.support.v7.widget.RecyclerView#NO_POSITION} if there is none.
+     */
+    int getPreviousSectionStart(int position) {
+        int previous = getSectionForPosition(position) - 1;
+        return previous >= 0 ? mPositions[previous] : NO_POSITION;
+    }
+}
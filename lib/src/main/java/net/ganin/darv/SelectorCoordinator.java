@@ -0,0 +1,122 @@
+/*
+ * Copyright 2016 Vsevolod Ganin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.ganin.darv;
+
+import android.graphics.Rect;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+
+/**
+ * Coordinates selectors of sibling {@link DpadAwareRecyclerView}s, e.g. of several lists on one
+ * screen. When focus moves from one list to another, selector of the newly focused list starts
+ * its transition from the place where selector of the previous list was, so selector visually
+ * flies over. Note that selector is drawn within list's bounds, so it appears at list's edge
+ * unless parent doesn't clip its children.
+ *
+ * <p>Selector transitions of all coordinated lists are driven by one {@link Choreographer}
+ * frame callback instead of an animator per list.
+ *
+ * <p>Attach with {@link DpadAwareRecyclerView#setSelectorCoordinator(SelectorCoordinator)}.
+ * Lists are held only while they are attached to window. Must be used on the main thread.
+ */
+public final class SelectorCoordinator {
+
+    private final ArrayList<DpadAwareRecyclerView> mLists = new ArrayList<>();
+    private final Rect mOwnerRect = new Rect();
+    private final int[] mOwnerLocation = new int[2];
+    private final int[] mListLocation = new int[2];
+
+    /**
+     * List which moved selector last.
+     */
+    @Nullable
+    private DpadAwareRecyclerView mSelectorOwner;
+
+    private boolean mFrameCallbackPosted = false;
+    private final Choreographer.FrameCallback mFrameCallback =
+            new Choreographer.FrameCallback() {
+                @Override
+                public void doFrame(long frameTimeNanos) {
+                    mFrameCallbackPosted = false;
+                    onFrame(frameTimeNanos);
+                }
+            };
+
+    void register(@NonNull DpadAwareRecyclerView list) {
+        if (!mLists.contains(list)) {
+            mLists.add(list);
+        }
+    }
+
+    void unregister(@NonNull DpadAwareRecyclerView list) {
+        mLists.remove(list);
+        if (mSelectorOwner == list) {
+            mSelectorOwner = null;
+        }
+    }
+
+    /**
+     * Called when list is about to move its selector. If selector was moved last by another
+     * list of the same window, transition source is replaced by that list's selector bounds.
+     *
+     * @param list List which moves its selector.
+     * @param source Transition source in list's coordinates.
+     */
+    void takeOverSelector(@NonNull DpadAwareRecyclerView list, @NonNull Rect source) {
+        DpadAwareRecyclerView owner = mSelectorOwner;
+        mSelectorOwner = list;
+
+        if (owner == null || owner == list || owner.getWindowToken() != list.getWindowToken()
+                || !owner.getSelectorBounds(mOwnerRect)) {
+            return;
+        }
+
+        owner.getLocationInWindow(mOwnerLocation);
+        list.getLocationInWindow(mListLocation);
+        source.set(mOwnerRect);
+        source.offset(mOwnerLocation[0] - mListLocation[0], mOwnerLocation[1] - mListLocation[1]);
+    }
+
+    /**
+     * Make sure coordinated transitions get the next frame.
+     */
+    void scheduleFrame() {
+        if (!mFrameCallbackPosted) {
+            mFrameCallbackPosted = true;
+            Choreographer.getInstance().postFrameCallback(mFrameCallback);
+        }
+    }
+
+    private void onFrame(long frameTimeNanos) {
+        boolean running = false;
+
+        // Finished transition may detach some list, so iterate from the end
+        for (int i = mLists.size() - 1; i >= 0; i--) {
+            if (i < mLists.size() && mLists.get(i).onSelectorTransitionFrame(frameTimeNanos)) {
+                running = true;
+            }
+        }
+
+        if (running) {
+            scheduleFrame();
+        }
+    }
+}
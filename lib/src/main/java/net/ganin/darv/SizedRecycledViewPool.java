@@ -0,0 +1,88 @@
+/*
+ * Copyright 2016 Vsevolod Ganin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ganin.darv;
+
+import android.support.annotation.Nullable;
+import android.support.v7.widget.RecyclerView;
+import android.util.SparseIntArray;
+
+/**
+ * {@link RecyclerView.RecycledViewPool} which remembers its capacity per view type.
+ *
+ * <p>Share one instance between nested rows with
+ * {@link RecyclerView#setRecycledViewPool(RecyclerView.RecycledViewPool)}. Every
+ * {@link DpadAwareRecyclerView} with {@link DpadAwareRecyclerView#setRecycledViewPoolAutoSize
+ * auto size} enabled will then only grow the capacity up to its own footprint, so the pool
+ * ends up sized for the largest row instead of for whichever row was laid out last.
+ */
+public class SizedRecycledViewPool extends RecyclerView.RecycledViewPool {
+
+    private static final int DEFAULT_MAX_SCRAP = 5;
+
+    private final SparseIntArray mMaxScrap = new SparseIntArray();
+
+    @Nullable
+    private WorkCounters mWorkCounters;
+
+    @Override
+    public RecyclerView.ViewHolder getRecycledView(int viewType) {
+        RecyclerView.ViewHolder holder = super.getRecycledView(viewType);
+
+        // Recycler binds every holder taken from pool and creates one on pool miss
+        if (mWorkCounters != null) {
+            if (holder != null) {
+                mWorkCounters.onBind();
+            } else {
+                mWorkCounters.onCreate();
+            }
+        }
+
+        return holder;
+    }
+
+    @Override
+    public void setMaxRecycledViews(int viewType, int max) {
+        super.setMaxRecycledViews(viewType, max);
+        mMaxScrap.put(viewType, max);
+    }
+
+    /**
+     * Gets maximum number of views of passed type that are held by this pool.
+     *
+     * @param viewType View type.
+     * @return Capacity for passed view type.
+     */
+    public int getMaxRecycledViews(int viewType) {
+        return mMaxScrap.get(viewType, DEFAULT_MAX_SCRAP);
+    }
+
+    /**
+     * Grow capacity for passed view type. Capacity is never shrunk by this method.
+     *
+     * @param viewType View type.
+     * @param max      Desired capacity.
+     */
+    public void ensureMaxRecycledViews(int viewType, int max) {
+        if (max > getMaxRecycledViews(viewType)) {
+            setMaxRecycledViews(viewType, max);
+        }
+    }
+
+    void setWorkCounters(@Nullable WorkCounters workCounters) {
+        mWorkCounters = workCounters;
+    }
+}
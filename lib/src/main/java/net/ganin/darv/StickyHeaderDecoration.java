@@ -0,0 +1,152 @@
+/*
+ * Copyright 2016 Vsevolod Ganin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ganin.darv;
+
+import android.graphics.Canvas;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+import android.view.ViewGroup;
+
+import static android.support.v7.widget.RecyclerView.NO_POSITION;
+
+/**
+ * Draws header of the section at the top of {@link ExtGridLayoutManager}'s list pinned to the
+ * top edge. The next header pushes pinned one out when it comes close. Single header view is
+ * kept and rebound only when section changes, so no views are inflated while scrolling.
+ */
+final class StickyHeaderDecoration extends RecyclerView.ItemDecoration {
+
+    private final ExtGridLayoutManager mLayoutManager;
+
+    @Nullable
+    private RecyclerView.ViewHolder mHeaderHolder;
+
+    /**
+     * Position bound to {@link #mHeaderHolder}, {@link RecyclerView#NO_POSITION} if holder
+     * has to be rebound.
+     */
+    private int mBoundPosition = NO_POSITION;
+
+    StickyHeaderDecoration(@NonNull ExtGridLayoutManager layoutManager) {
+        mLayoutManager = layoutManager;
+    }
+
+    /**
+     * Rebind header on next draw, e.g. after adapter change.
+     */
+    void invalidate() {
+        mBoundPosition = NO_POSITION;
+    }
+
+    /**
+     * Drop header view, e.g. when adapter is replaced.
+     */
+    void reset() {
+        mHeaderHolder = null;
+        mBoundPosition = NO_POSITION;
+    }
+
+    /**
+     * @return Height of the last drawn header or 0 if there is none.
+     */
+    int getHeaderHeight() {
+        return mHeaderHolder != null && mBoundPosition != NO_POSITION
+                ? mHeaderHolder.itemView.getHeight() : 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void onDrawOver(Canvas c, RecyclerView parent, RecyclerView.State state) {
+        RecyclerView.Adapter adapter = parent.getAdapter();
+        View topChild = findTopChild(parent);
+        if (adapter == null || topChild == null) {
+            return;
+        }
+
+        int topPosition = parent.getChildAdapterPosition(topChild);
+        int headerPosition = mLayoutManager.getHeaderPosition(topPosition);
+        if (headerPosition == NO_POSITION) {
+            return;
+        }
+
+        // Header item itself is in place, nothing to pin
+        if (headerPosition == topPosition && topChild.getTop() >= parent.getPaddingTop()) {
+            return;
+        }
+
+        int viewType = adapter.getItemViewType(headerPosition);
+        if (mHeaderHolder == null || mHeaderHolder.getItemViewType() != viewType) {
+            mHeaderHolder = adapter.createViewHolder(parent, viewType);
+            mBoundPosition = NO_POSITION;
+        }
+
+        View header = mHeaderHolder.itemView;
+        if (mBoundPosition != headerPosition) {
+            adapter.bindViewHolder(mHeaderHolder, headerPosition);
+            mBoundPosition = headerPosition;
+            measureAndLayout(parent, header);
+        }
+
+        int top = parent.getPaddingTop();
+
+        // Next header pushes pinned one out
+        int nextHeaderPosition = mLayoutManager.getNextHeaderPosition(topPosition);
+        View nextHeader = nextHeaderPosition != NO_POSITION
+                ? mLayoutManager.findViewByPosition(nextHeaderPosition) : null;
+        if (nextHeader != null) {
+            top = Math.min(top, nextHeader.getTop() - header.getHeight());
+        }
+
+        int saveCount = c.save();
+        c.clipRect(parent.getPaddingLeft(), parent.getPaddingTop(),
+                parent.getWidth() - parent.getPaddingRight(),
+                parent.getHeight() - parent.getPaddingBottom());
+        c.translate(parent.getPaddingLeft(), top);
+        header.draw(c);
+        c.restoreToCount(saveCount);
+    }
+
+    /**
+     * @return Child which is visible at the top edge.
+     */
+    @Nullable
+    private static View findTopChild(@NonNull RecyclerView parent) {
+        int childCount = parent.getChildCount();
+        for (int i = 0; i < childCount; i++) {
+            View child = parent.getChildAt(i);
+            if (child.getBottom() > parent.getPaddingTop()
+                    && parent.getChildAdapterPosition(child) != NO_POSITION) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    private static void measureAndLayout(@NonNull RecyclerView parent, @NonNull View header) {
+        int width = parent.getWidth() - parent.getPaddingLeft() - parent.getPaddingRight();
+        ViewGroup.LayoutParams lp = header.getLayoutParams();
+        int heightSpec = lp != null && lp.height >= 0
+                ? View.MeasureSpec.makeMeasureSpec(lp.height, View.MeasureSpec.EXACTLY)
+                : View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+
+        header.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY),
+                heightSpec);
+        header.layout(0, 0, header.getMeasuredWidth(), header.getMeasuredHeight());
+    }
+}
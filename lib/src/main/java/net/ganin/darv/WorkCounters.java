@@ -0,0 +1,183 @@
+/*
+ * Copyright 2016 Vsevolod Ganin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ganin.darv;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Counters of layout, bind and focus work done by {@link DpadAwareRecyclerView} and its
+ * {@link ExtGridLayoutManager}. Attach with
+ * {@link DpadAwareRecyclerView#setWorkCounters(WorkCounters)}, then {@link #reset()} before
+ * the D-pad step of interest and take {@link #snapshot()} after it. Numbers divided by
+ * {@link #getStepCount()} give average work per step.
+ *
+ * <p>One instance may be shared by several lists, e.g. by all rows of a nested layout.
+ * Must be used on the main thread.
+ */
+public final class WorkCounters {
+
+    private int mStepCount;
+    private int mMeasureCount;
+    private int mLayoutChildrenCount;
+    private int mViewForPositionCount;
+    private int mCreateCount;
+    private int mBindCount;
+    private int mFocusSearchCount;
+    private int mSelectorAnimationCount;
+
+    /**
+     * @return Number of D-pad navigation key downs.
+     */
+    public int getStepCount() {
+        return mStepCount;
+    }
+
+    /**
+     * @return Number of list measure passes.
+     */
+    public int getMeasureCount() {
+        return mMeasureCount;
+    }
+
+    /**
+     * @return Number of {@link ExtGridLayoutManager} layout passes, pre-layout included.
+     */
+    public int getLayoutChildrenCount() {
+        return mLayoutChildrenCount;
+    }
+
+    /**
+     * @return Number of views obtained from recycler by {@link ExtGridLayoutManager}, dummy
+     * children measured for {@code wrap_content} and {@code AUTO_FIT} included.
+     */
+    public int getViewForPositionCount() {
+        return mViewForPositionCount;
+    }
+
+    /**
+     * Gets number of created view holders. Counted only if list uses
+     * {@link SizedRecycledViewPool}: every pool miss is followed by creation.
+     *
+     * @return Number of created view holders.
+     */
+    public int getCreateCount() {
+        return mCreateCount;
+    }
+
+    /**
+     * Gets number of view holder binds. Counted only if list uses
+     * {@link SizedRecycledViewPool}: holders taken from pool and created ones are bound.
+     * Views reattached from view cache are not bound and are not counted.
+     *
+     * @return Number of view holder binds.
+     */
+    public int getBindCount() {
+        return mBindCount;
+    }
+
+    /**
+     * @return Number of focus searches, each of them invokes {@link android.view.FocusFinder}.
+     */
+    public int getFocusSearchCount() {
+        return mFocusSearchCount;
+    }
+
+    /**
+     * @return Number of started selector transitions.
+     */
+    public int getSelectorAnimationCount() {
+        return mSelectorAnimationCount;
+    }
+
+    /**
+     * @return Copy of current values which is not affected by further work.
+     */
+    @NonNull
+    public WorkCounters snapshot() {
+        WorkCounters copy = new WorkCounters();
+        copy.mStepCount = mStepCount;
+        copy.mMeasureCount = mMeasureCount;
+        copy.mLayoutChildrenCount = mLayoutChildrenCount;
+        copy.mViewForPositionCount = mViewForPositionCount;
+        copy.mCreateCount = mCreateCount;
+        copy.mBindCount = mBindCount;
+        copy.mFocusSearchCount = mFocusSearchCount;
+        copy.mSelectorAnimationCount = mSelectorAnimationCount;
+        return copy;
+    }
+
+    /**
+     * Set all counters to zero.
+     */
+    public void reset() {
+        mStepCount = 0;
+        mMeasureCount = 0;
+        mLayoutChildrenCount = 0;
+        mViewForPositionCount = 0;
+        mCreateCount = 0;
+        mBindCount = 0;
+        mFocusSearchCount = 0;
+        mSelectorAnimationCount = 0;
+    }
+
+    void onStep() {
+        mStepCount++;
+    }
+
+    void onMeasure() {
+        mMeasureCount++;
+    }
+
+    void onLayoutChildren() {
+        mLayoutChildrenCount++;
+    }
+
+    void onViewForPosition() {
+        mViewForPositionCount++;
+    }
+
+    void onCreate() {
+        mCreateCount++;
+        mBindCount++;
+    }
+
+    void onBind() {
+        mBindCount++;
+    }
+
+    void onFocusSearch() {
+        mFocusSearchCount++;
+    }
+
+    void onSelectorAnimation() {
+        mSelectorAnimationCount++;
+    }
+
+    @Override
+    public String toString() {
+        return "WorkCounters{"
+                + "steps=" + mStepCount
+                + ", measures=" + mMeasureCount
+                + ", layouts=" + mLayoutChildrenCount
+                + ", viewsForPosition=" + mViewForPositionCount
+                + ", creates=" + mCreateCount
+                + ", binds=" + mBindCount
+                + ", focusSearches=" + mFocusSearchCount
+                + ", selectorAnimations=" + mSelectorAnimationCount
+                + '}';
+    }
+}
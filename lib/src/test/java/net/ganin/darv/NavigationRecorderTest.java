@@ -0,0 +1,173 @@
+/*
+ * Copyright 2016 Vsevolod Ganin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ganin.darv;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class NavigationRecorderTest {
+
+    /* KeyEvent constants, android.jar ones can't be used on plain JVM */
+    private static final int ACTION_DOWN = 0;
+    private static final int ACTION_UP = 1;
+    private static final int KEYCODE_DPAD_DOWN = 20;
+
+    @Test
+    public void roundTrip() throws IOException {
+        NavigationRecorder recorder = new NavigationRecorder(8);
+        record(recorder, 0, 5);
+
+        NavigationRecorder read = writeAndRead(recorder);
+        assertEquals(5, read.getRecordCount());
+        assertRecords(read, 0, 5);
+    }
+
+    @Test
+    public void roundTripAfterWraparound() throws IOException {
+        NavigationRecorder recorder = new NavigationRecorder(4);
+        record(recorder, 0, 11);
+
+        // Only the latest records are kept, oldest first
+        assertEquals(4, recorder.getRecordCount());
+        assertRecords(recorder, 7, 4);
+
+        NavigationRecorder read = writeAndRead(recorder);
+        assertEquals(4, read.getRecordCount());
+        assertRecords(read, 7, 4);
+    }
+
+    @Test
+    public void roundTripOfFullBuffer() throws IOException {
+        NavigationRecorder recorder = new NavigationRecorder(4);
+        record(recorder, 0, 4);
+
+        assertRecords(writeAndRead(recorder), 0, 4);
+    }
+
+    @Test
+    public void roundTripOfEmptyRecording() throws IOException {
+        NavigationRecorder read = writeAndRead(new NavigationRecorder(4));
+        assertEquals(0, read.getRecordCount());
+    }
+
+    @Test
+    public void recordingContinuesAfterRead() throws IOException {
+        NavigationRecorder recorder = new NavigationRecorder(3);
+        record(recorder, 0, 3);
+
+        NavigationRecorder read = writeAndRead(recorder);
+        record(read, 3, 2);
+        assertEquals(3, read.getRecordCount());
+        assertRecords(read, 2, 3);
+    }
+
+    @Test
+    public void repeatCountIsSaturated() {
+        NavigationRecorder recorder = new NavigationRecorder(1);
+        recorder.record(0, 0, ACTION_DOWN, KEYCODE_DPAD_DOWN, 100000, 0, 1);
+        assertEquals(0xffff, recorder.getRepeatCount(0));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void indexIsChecked() {
+        NavigationRecorder recorder = new NavigationRecorder(4);
+        record(recorder, 0, 2);
+        recorder.getEventTime(2);
+    }
+
+    @Test
+    public void readRejectsInvalidRecordCount() throws IOException {
+        assertReadFails(header(0x44415256, 1, -1));
+        assertReadFails(header(0x44415256, 1, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void readRejectsForeignData() throws IOException {
+        assertReadFails(header(0x12345678, 1, 0));
+        assertReadFails(header(0x44415256, 2, 0));
+    }
+
+    @Test
+    public void readRejectsTruncatedData() throws IOException {
+        NavigationRecorder recorder = new NavigationRecorder(4);
+        record(recorder, 0, 2);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        recorder.writeTo(out);
+        byte[] bytes = out.toByteArray();
+        byte[] truncated = new byte[bytes.length - 1];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        assertReadFails(truncated);
+    }
+
+    /**
+     * Record events whose fields are derived from their sequence number.
+     */
+    private static void record(NavigationRecorder recorder, int first, int count) {
+        for (int i = first; i < first + count; i++) {
+            recorder.record(1000L * i + (1L << 40), 1000L * i, i % 2 == 0 ? ACTION_DOWN : ACTION_UP,
+                    KEYCODE_DPAD_DOWN + i % 4, i * 3, i - 1, i * 100);
+        }
+    }
+
+    private static void assertRecords(NavigationRecorder recorder, int first, int count) {
+        assertEquals(count, recorder.getRecordCount());
+        for (int index = 0; index < count; index++) {
+            int i = first + index;
+            assertEquals(1000L * i + (1L << 40), recorder.getEventTime(index));
+            assertEquals(1000L * i, recorder.getDownTime(index));
+            assertEquals(i % 2 == 0 ? ACTION_DOWN : ACTION_UP, recorder.getAction(index));
+            assertEquals(KEYCODE_DPAD_DOWN + i % 4, recorder.getKeyCode(index));
+            assertEquals(i * 3, recorder.getRepeatCount(index));
+            assertEquals(i - 1, recorder.getFocusedPosition(index));
+            assertEquals(i * 100, recorder.getItemCount(index));
+        }
+    }
+
+    private static NavigationRecorder writeAndRead(NavigationRecorder recorder)
+            throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        recorder.writeTo(out);
+        return NavigationRecorder.readFrom(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    private static byte[] header(int magic, int version, int count) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(magic);
+        data.writeInt(version);
+        data.writeInt(count);
+        data.flush();
+        return out.toByteArray();
+    }
+
+    private static void assertReadFails(byte[] bytes) {
+        try {
+            NavigationRecorder.readFrom(new ByteArrayInputStream(bytes));
+            fail("Recording must not be read");
+        } catch (IOException e) {
+            // Expected
+        }
+    }
+}
@@ -0,0 +1,371 @@
+/*
+ * Copyright 2016 Vsevolod Ganin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ganin.darv;
+
+import android.app.Activity;
+import android.graphics.drawable.ColorDrawable;
+import android.support.v7.widget.GridLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.view.KeyEvent;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Headless navigation stress benchmark. Scripts D-pad steps through
+ * {@link DpadAwareRecyclerView#dispatchKeyEvent(KeyEvent)} over large adapters and reports
+ * wall time, layout passes and allocated bytes per step. Fails if allocation per step exceeds
+ * {@link #MAX_ALLOCATED_BYTES_PER_STEP}, which can be overridden with
+ * {@code -Ddarv.stress.maxBytesPerStep=...}, or if most steps don't move focus. Allocation check
+ * is skipped on JVMs which can't report thread allocation. Only 10k scenarios run by default, 100k and 1M
+ * ones are skipped unless {@code -Ddarv.stress.large=true} is passed.
+ *
+ * <p>Run with {@code ./gradlew :lib:testDebugUnitTest --tests '*NavigationStressBenchmark'}.
+ */
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class NavigationStressBenchmark {
+
+    private static final int VIEWPORT_WIDTH = 1920;
+    private static final int VIEWPORT_HEIGHT = 1080;
+    private static final int ITEM_WIDTH = 160;
+    private static final int ITEM_HEIGHT = 90;
+    private static final int SPAN_COUNT = 6;
+
+    private static final int WARMUP_STEPS = 200;
+    private static final int MEASURED_STEPS = 2000;
+
+    /**
+     * Robolectric's shadow dispatch allocates on its own, so the limit is generous. It is
+     * meant to catch regressions like per-step object churn on selector/focus path.
+     */
+    private static final long MAX_ALLOCATED_BYTES_PER_STEP =
+            Long.getLong("darv.stress.maxBytesPerStep", 64 * 1024);
+
+    /**
+     * Share of measured steps which must move focus. Only steps at the ends of non-circular
+     * list may fail to, so otherwise the run measures no-op key dispatch.
+     */
+    private static final float MIN_MOVED_STEPS_FRACTION = 0.9f;
+
+    private static final boolean LARGE = Boolean.getBoolean("darv.stress.large");
+
+    @Test
+    public void vertical10k() {
+        run("vertical", 10000, vertical());
+    }
+
+    @Test
+    public void vertical100k() {
+        assumeTrue(LARGE);
+        run("vertical", 100000, vertical());
+    }
+
+    @Test
+    public void vertical1m() {
+        assumeTrue(LARGE);
+        run("vertical", 1000000, vertical());
+    }
+
+    @Test
+    public void horizontal10k() {
+        run("horizontal", 10000, horizontal());
+    }
+
+    @Test
+    public void horizontal100k() {
+        assumeTrue(LARGE);
+        run("horizontal", 100000, horizontal());
+    }
+
+    @Test
+    public void horizontal1m() {
+        assumeTrue(LARGE);
+        run("horizontal", 1000000, horizontal());
+    }
+
+    @Test
+    public void autoFit10k() {
+        run("auto fit", 10000, autoFit());
+    }
+
+    @Test
+    public void autoFit100k() {
+        assumeTrue(LARGE);
+        run("auto fit", 100000, autoFit());
+    }
+
+    @Test
+    public void autoFit1m() {
+        assumeTrue(LARGE);
+        run("auto fit", 1000000, autoFit());
+    }
+
+    @Test
+    public void circular10k() {
+        run("circular", 10000, circular());
+    }
+
+    @Test
+    public void circular100k() {
+        assumeTrue(LARGE);
+        run("circular", 100000, circular());
+    }
+
+    @Test
+    public void circular1m() {
+        assumeTrue(LARGE);
+        run("circular", 1000000, circular());
+    }
+
+    private ExtGridLayoutManager.Builder vertical() {
+        return new ExtGridLayoutManager.Builder(RuntimeEnvironment.application)
+                .spanCount(SPAN_COUNT)
+                .orientation(GridLayoutManager.VERTICAL)
+                .offsetFraction(0.5f);
+    }
+
+    private ExtGridLayoutManager.Builder horizontal() {
+        return vertical().orientation(GridLayoutManager.HORIZONTAL);
+    }
+
+    private ExtGridLayoutManager.Builder autoFit() {
+        return vertical().spanCount(ExtGridLayoutManager.AUTO_FIT).spanSizePx(ITEM_WIDTH);
+    }
+
+    private ExtGridLayoutManager.Builder circular() {
+        return vertical().circular(true);
+    }
+
+    private void run(String setup, int itemCount, ExtGridLayoutManager.Builder builder) {
+        Activity activity = Robolectric.setupActivity(Activity.class);
+        ExtGridLayoutManager layoutManager = builder.build();
+        boolean vertical = layoutManager.getOrientation() == GridLayoutManager.VERTICAL;
+
+        DpadAwareRecyclerView list = new DpadAwareRecyclerView(activity);
+        list.setLayoutManager(layoutManager);
+        list.setRecycledViewPool(new SizedRecycledViewPool());
+        list.setAdapter(new StressAdapter(itemCount));
+        list.setForegroundSelector(new ColorDrawable(0x80ffffff));
+        list.setBackgroundSelector(new ColorDrawable(0x80000000));
+        activity.setContentView(list,
+                new ViewGroup.LayoutParams(VIEWPORT_WIDTH, VIEWPORT_HEIGHT));
+        layout(list);
+
+        list.requestFocus();
+        layout(list);
+
+        WorkCounters counters = new WorkCounters();
+        list.setWorkCounters(counters);
+
+        Navigator navigator = new Navigator(list, vertical, layoutManager.isCircular());
+        for (int i = 0; i < WARMUP_STEPS; i++) {
+            navigator.step();
+        }
+
+        counters.reset();
+        navigator.resetMovedCount();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long allocatedBefore = allocatedBytes(threads);
+        boolean allocationSupported = allocatedBefore >= 0;
+        long startNanos = System.nanoTime();
+
+        for (int i = 0; i < MEASURED_STEPS; i++) {
+            navigator.step();
+        }
+
+        long elapsedNanos = System.nanoTime() - startNanos;
+        long allocated = allocatedBytes(threads) - allocatedBefore;
+
+        long bytesPerStep = allocated / MEASURED_STEPS;
+        System.out.println(String.format(Locale.US,
+                "%-10s %8d items: %7.1f us/step, %5.2f layouts/step, %5.2f binds/step, "
+                        + "%5.2f moves/step, %s bytes/step",
+                setup, itemCount,
+                elapsedNanos / 1000.0 / MEASURED_STEPS,
+                (float) counters.getLayoutChildrenCount() / MEASURED_STEPS,
+                (float) counters.getBindCount() / MEASURED_STEPS,
+                (float) navigator.getMovedCount() / MEASURED_STEPS,
+                allocationSupported ? String.format(Locale.US, "%7d", bytesPerStep) : "    n/a"));
+
+        assertTrue(setup + " " + itemCount + ": only " + navigator.getMovedCount() + " of "
+                        + MEASURED_STEPS + " steps moved focus",
+                navigator.getMovedCount() >= MEASURED_STEPS * MIN_MOVED_STEPS_FRACTION);
+
+        if (allocationSupported) {
+            assertTrue(setup + " " + itemCount + ": " + bytesPerStep + " bytes/step exceeds "
+                            + MAX_ALLOCATED_BYTES_PER_STEP,
+                    bytesPerStep <= MAX_ALLOCATED_BYTES_PER_STEP);
+        }
+    }
+
+    /**
+     * @return Bytes allocated by current thread so far or -1 if JVM can't tell.
+     */
+    private static long allocatedBytes(ThreadMXBean threads) {
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) threads;
+            if (hotspot.isThreadAllocatedMemorySupported()) {
+                return hotspot.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+
+        return -1;
+    }
+
+    private static void layout(View list) {
+        ShadowLooper.runUiThreadTasks();
+        if (list.isLayoutRequested()) {
+            list.measure(
+                    View.MeasureSpec.makeMeasureSpec(VIEWPORT_WIDTH, View.MeasureSpec.EXACTLY),
+                    View.MeasureSpec.makeMeasureSpec(VIEWPORT_HEIGHT, View.MeasureSpec.EXACTLY));
+            list.layout(0, 0, VIEWPORT_WIDTH, VIEWPORT_HEIGHT);
+        }
+    }
+
+    /**
+     * Does what ViewRootImpl does with D-pad keys: dispatches them and moves focus if they
+     * weren't consumed. Key events are created up front so they don't count as allocations.
+     */
+    private static final class Navigator {
+
+        /* Indices of forward, backward and cross directions in arrays below */
+        private static final int FORWARD = 0;
+        private static final int BACKWARD = 1;
+        private static final int CROSS_FORWARD = 2;
+        private static final int CROSS_BACKWARD = 3;
+
+        private final DpadAwareRecyclerView mList;
+        private final boolean mCircular;
+        private final KeyEvent[] mDownEvents = new KeyEvent[4];
+        private final KeyEvent[] mUpEvents = new KeyEvent[4];
+        private final int[] mDirections = new int[4];
+
+        private int mStep = 0;
+        private int mMovedCount = 0;
+        private boolean mBackward;
+
+        Navigator(DpadAwareRecyclerView list, boolean vertical, boolean circular) {
+            mList = list;
+            mCircular = circular;
+            // Circular list is walked backward so it wraps from the first item to the last
+            mBackward = circular;
+
+            if (vertical) {
+                init(FORWARD, KeyEvent.KEYCODE_DPAD_DOWN, View.FOCUS_DOWN);
+                init(BACKWARD, KeyEvent.KEYCODE_DPAD_UP, View.FOCUS_UP);
+                init(CROSS_FORWARD, KeyEvent.KEYCODE_DPAD_RIGHT, View.FOCUS_RIGHT);
+                init(CROSS_BACKWARD, KeyEvent.KEYCODE_DPAD_LEFT, View.FOCUS_LEFT);
+            } else {
+                init(FORWARD, KeyEvent.KEYCODE_DPAD_RIGHT, View.FOCUS_RIGHT);
+                init(BACKWARD, KeyEvent.KEYCODE_DPAD_LEFT, View.FOCUS_LEFT);
+                init(CROSS_FORWARD, KeyEvent.KEYCODE_DPAD_DOWN, View.FOCUS_DOWN);
+                init(CROSS_BACKWARD, KeyEvent.KEYCODE_DPAD_UP, View.FOCUS_UP);
+            }
+        }
+
+        private void init(int index, int keyCode, int direction) {
+            mDownEvents[index] = new KeyEvent(KeyEvent.ACTION_DOWN, keyCode);
+            mUpEvents[index] = new KeyEvent(KeyEvent.ACTION_UP, keyCode);
+            mDirections[index] = direction;
+        }
+
+        void step() {
+            int index;
+            if (mStep % 8 == 7) {
+                index = (mStep / 8) % 2 == 0 ? CROSS_FORWARD : CROSS_BACKWARD;
+            } else {
+                index = mBackward ? BACKWARD : FORWARD;
+            }
+            mStep++;
+
+            mList.dispatchKeyEvent(mDownEvents[index]);
+
+            boolean moved = false;
+            View focused = mList.findFocus();
+            if (focused != null) {
+                View next = focused.focusSearch(mDirections[index]);
+                moved = next != null && next.requestFocus(mDirections[index]);
+            }
+
+            mList.dispatchKeyEvent(mUpEvents[index]);
+            layout(mList);
+
+            if (moved) {
+                mMovedCount++;
+            }
+
+            // Bounce between the ends of non-circular list
+            if (!moved && !mCircular && (index == FORWARD || index == BACKWARD)) {
+                mBackward = !mBackward;
+            }
+        }
+
+        /**
+         * @return Number of steps which moved focus since last reset.
+         */
+        int getMovedCount() {
+            return mMovedCount;
+        }
+
+        void resetMovedCount() {
+            mMovedCount = 0;
+        }
+    }
+
+    private static final class StressAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+
+        private final int mItemCount;
+
+        StressAdapter(int itemCount) {
+            mItemCount = itemCount;
+        }
+
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+            View view = new View(parent.getContext());
+            view.setFocusable(true);
+            view.setLayoutParams(new RecyclerView.LayoutParams(ITEM_WIDTH, ITEM_HEIGHT));
+            return new RecyclerView.ViewHolder(view) {
+            };
+        }
+
+        @Override
+        public void onBindViewHolder(RecyclerView.ViewHolder holder, int position) {
+            // Nothing to bind, benchmark measures the list itself
+        }
+
+        @Override
+        public int getItemCount() {
+            return mItemCount;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2016 Vsevolod Ganin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ganin.darv;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PositionRangeSetTest {
+
+    @Test
+    public void toggleMergesAdjacentPositions() {
+        PositionRangeSet set = new PositionRangeSet();
+        set.toggle(1);
+        set.toggle(3);
+        assertRanges(set, 1, 2, 3, 4);
+
+        assertTrue(set.toggle(2));
+        assertRanges(set, 1, 4);
+        assertEquals(3, set.size());
+    }
+
+    @Test
+    public void toggleSplitsRange() {
+        PositionRangeSet set = new PositionRangeSet();
+        set.addRange(0, 10);
+
+        assertFalse(set.toggle(4));
+        assertRanges(set, 0, 4, 5, 10);
+        assertFalse(set.contains(4));
+        assertTrue(set.contains(5));
+        assertEquals(9, set.size());
+    }
+
+    @Test
+    public void addRangeMergesOverlappedRanges() {
+        PositionRangeSet set = new PositionRangeSet();
+        set.addRange(0, 2);
+        set.addRange(4, 6);
+        set.addRange(8, 10);
+        set.addRange(12, 14);
+
+        set.addRange(1, 9);
+        assertRanges(set, 0, 10, 12, 14);
+        assertEquals(12, set.size());
+    }
+
+    @Test
+    public void removeRangeKeepsSides() {
+        PositionRangeSet set = new PositionRangeSet();
+        set.addRange(0, 4);
+        set.addRange(6, 10);
+
+        set.removeRange(2, 8);
+        assertRanges(set, 0, 2, 8, 10);
+        assertEquals(4, set.size());
+    }
+
+    @Test
+    public void insertShiftsAndSplits() {
+        PositionRangeSet set = new PositionRangeSet();
+        set.addRange(2, 6);
+        set.addRange(10, 12);
+
+        set.onItemRangeInserted(4, 3);
+        assertRanges(set, 2, 4, 7, 9, 13, 15);
+        assertEquals(6, set.size());
+    }
+
+    @Test
+    public void insertAtRangeStartShiftsWholeRange() {
+        PositionRangeSet set = new PositionRangeSet();
+        set.addRange(2, 6);
+
+        set.onItemRangeInserted(2, 1);
+        assertRanges(set, 3, 7);
+    }
+
+    @Test
+    public void removeShiftsAndMergesTouchingRanges() {
+        PositionRangeSet set = new PositionRangeSet();
+        set.addRange(0, 3);
+        set.addRange(5, 8);
+        set.addRange(12, 14);
+
+        set.onItemRangeRemoved(3, 2);
+        assertRanges(set, 0, 6, 10, 12);
+        assertEquals(8, set.size());
+    }
+
+    @Test
+    public void removeDropsRemovedPositions() {
+        PositionRangeSet set = new PositionRangeSet();
+        set.addRange(0, 10);
+
+        set.onItemRangeRemoved(2, 3);
+        assertRanges(set, 0, 7);
+        assertEquals(7, set.size());
+    }
+
+    @Test
+    public void moveForwardCarriesMembership() {
+        PositionRangeSet set = new PositionRangeSet();
+        set.toggle(1);
+        set.toggle(5);
+
+        // 0 1 2 3 4 5 -> 0 2 3 1 4 5
+        set.onItemRangeMoved(1, 3, 1);
+        assertRanges(set, 3, 4, 5, 6);
+    }
+
+    @Test
+    public void moveBackwardCarriesMembership() {
+        PositionRangeSet set = new PositionRangeSet();
+        set.addRange(4, 6);
+        set.toggle(0);
+
+        // 0 1 2 3 4 5 6 -> 0 4 5 1 2 3 6
+        set.onItemRangeMoved(4, 1, 2);
+        assertRanges(set, 0, 3);
+        assertEquals(3, set.size());
+    }
+
+    @Test
+    public void moveMatchesPositionAfterMove() {
+        int itemCount = 16;
+        for (int from = 0; from < itemCount; from++) {
+            for (int to = 0; to < itemCount; to++) {
+                for (int count = 1; from + count <= itemCount && to + count <= itemCount;
+                        count++) {
+                    PositionRangeSet set = new PositionRangeSet();
+                    boolean[] expected = new boolean[itemCount];
+                    for (int pos = 0; pos < itemCount; pos++) {
+                        if (pos % 3 != 1) {
+                            set.toggle(pos);
+                            expected[NavigationMath.positionAfterMove(pos, from, to, count)] =
+                                    true;
+                        }
+                    }
+
+                    set.onItemRangeMoved(from, to, count);
+                    for (int pos = 0; pos < itemCount; pos++) {
+                        assertEquals("move " + from + " -> " + to + " x" + count + " at " + pos,
+                                expected[pos], set.contains(pos));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void truncateDropsTail() {
+        PositionRangeSet set = new PositionRangeSet();
+        set.addRange(0, 4);
+        set.addRange(6, 10);
+
+        set.truncate(8);
+        assertRanges(set, 0, 4, 6, 8);
+        assertEquals(6, set.size());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getRangeStartChecksBounds() {
+        new PositionRangeSet().getRangeStart(0);
+    }
+
+    private static void assertRanges(PositionRangeSet set, int... bounds) {
+        int[] actual = new int[set.getRangeCount() * 2];
+        for (int i = 0; i < set.getRangeCount(); i++) {
+            actual[i * 2] = set.getRangeStart(i);
+            actual[i * 2 + 1] = set.getRangeEnd(i);
+        }
+        assertArrayEquals(bounds, actual);
+    }
+}
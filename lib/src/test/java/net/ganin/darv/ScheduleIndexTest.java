@@ -0,0 +1,119 @@
+/*
+ * Copyright 2016 Vsevolod Ganin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ganin.darv;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ScheduleIndexTest {
+
+    /*
+       Row 0: [0; 10) [10; 20)      [40; 50)
+       Row 1: empty
+       Row 2:          [15; 30)              [60; 90)
+     */
+    private static ScheduleIndex createIndex() {
+        ScheduleIndex index = new ScheduleIndex();
+        index.set(new int[] { 0, 3, 3, 5 },
+                new long[] { 0, 10, 40, 15, 60 },
+                new long[] { 10, 20, 50, 30, 90 });
+        return index;
+    }
+
+    @Test
+    public void bounds() {
+        ScheduleIndex index = createIndex();
+        assertEquals(3, index.getRowCount());
+        assertEquals(5, index.getCellCount());
+        assertEquals(0, index.getMinTime());
+        assertEquals(90, index.getMaxTime());
+    }
+
+    @Test
+    public void rowForPositionSkipsEmptyRows() {
+        ScheduleIndex index = createIndex();
+        assertEquals(0, index.getRowForPosition(0));
+        assertEquals(0, index.getRowForPosition(2));
+        assertEquals(2, index.getRowForPosition(3));
+        assertEquals(2, index.getRowForPosition(4));
+    }
+
+    @Test
+    public void findCellAtReturnsRunningCell() {
+        ScheduleIndex index = createIndex();
+        assertEquals(0, index.findCellAt(0, 0));
+        assertEquals(0, index.findCellAt(0, 9));
+        // Cell ends are exclusive
+        assertEquals(1, index.findCellAt(0, 10));
+        assertEquals(3, index.findCellAt(2, 29));
+    }
+
+    @Test
+    public void findCellAtPicksNearestCellInGap() {
+        ScheduleIndex index = createIndex();
+        // Gap [20; 40) of row 0
+        assertEquals(1, index.findCellAt(0, 25));
+        assertEquals(2, index.findCellAt(0, 35));
+        // Tie goes to the later cell
+        assertEquals(2, index.findCellAt(0, 30));
+    }
+
+    @Test
+    public void findCellAtClampsToRowEdges() {
+        ScheduleIndex index = createIndex();
+        assertEquals(0, index.findCellAt(0, -100));
+        assertEquals(2, index.findCellAt(0, 1000));
+        assertEquals(3, index.findCellAt(2, 0));
+        assertEquals(4, index.findCellAt(2, 1000));
+    }
+
+    @Test
+    public void findCellAtInEmptyRow() {
+        assertEquals(ScheduleIndex.NO_POSITION, createIndex().findCellAt(1, 20));
+    }
+
+    @Test
+    public void findFirstEndingAfter() {
+        ScheduleIndex index = createIndex();
+        assertEquals(0, index.findFirstEndingAfter(0, 5));
+        assertEquals(1, index.findFirstEndingAfter(0, 10));
+        assertEquals(2, index.findFirstEndingAfter(0, 20));
+        assertEquals(3, index.findFirstEndingAfter(0, 50));
+        assertEquals(3, index.findFirstEndingAfter(1, 0));
+    }
+
+    @Test
+    public void clear() {
+        ScheduleIndex index = createIndex();
+        index.clear();
+        assertEquals(0, index.getRowCount());
+        assertEquals(0, index.getCellCount());
+        assertEquals(0, index.getMinTime());
+        assertEquals(0, index.getMaxTime());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setRejectsOverlappingCells() {
+        new ScheduleIndex().set(new int[] { 0, 2 }, new long[] { 0, 5 }, new long[] { 10, 20 });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setRejectsMismatchedRowStarts() {
+        new ScheduleIndex().set(new int[] { 0, 3 }, new long[] { 0, 5 }, new long[] { 5, 10 });
+    }
+}